@@ -0,0 +1,27 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so each result reports ops/s
+ * together with the allocation rate.
+ */
+public class BenchmarkRunner {
+  /**
+   * Program entry point.
+   *
+   * @param args an optional regular expression selecting the benchmarks to run.
+   * @throws RunnerException if JMH fails to run.
+   */
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+        .include(args.length > 0 ? args[0] : "benchmark\\..*")
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,322 @@
+package benchmark;
+
+import building.Building;
+import building.BuildingReport;
+import building.BuildingSnapshot;
+import building.RequestQueue;
+import building.dispatch.DispatchContext;
+import building.dispatch.DispatchStrategy;
+import building.dispatch.NearestCarDispatchStrategy;
+import building.dispatch.TerminalDispatchStrategy;
+import elevator.Elevator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * Throughput of the Building entry points across building sizes and backlog depths, and
+ * of the dispatch strategies on their own. Add, step and dispatch run on buildings of
+ * their own that are prepared before every call, outside the timed region.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BuildingBenchmark {
+  @Param({"10", "30"})
+  public int floors;
+
+  @Param({"3", "10"})
+  public int elevators;
+
+  @Param({"5", "20"})
+  public int capacity;
+
+  @Param({"0", "1000", "100000"})
+  public int backlog;
+
+  private Building building;
+  private RequestPool pool;
+  private final BuildingSnapshot snapshot = new BuildingSnapshot();
+
+  /**
+   * Build a running building with a full backlog before every iteration.
+   */
+  @Setup(Level.Iteration)
+  public void setUp() {
+    pool = new RequestPool(floors, 42L);
+    building = newBuilding();
+  }
+
+  /**
+   * One system step at the configured backlog depth.
+   *
+   * @param stepping the building to step.
+   * @return the building, so the step can't be eliminated.
+   */
+  @Benchmark
+  public Building step(Stepping stepping) {
+    stepping.building.stepElevatorSystem();
+    return stepping.building;
+  }
+
+  /**
+   * One dispatch by the original policy.
+   *
+   * @param dispatching the building to dispatch for.
+   * @return the building, so the dispatch can't be eliminated.
+   */
+  @Benchmark
+  public Building dispatchTerminal(Dispatching dispatching) {
+    dispatching.terminal.dispatch(dispatching.context);
+    return dispatching.building;
+  }
+
+  /**
+   * One dispatch by the nearest car policy.
+   *
+   * @param dispatching the building to dispatch for.
+   * @return the building, so the dispatch can't be eliminated.
+   */
+  @Benchmark
+  public Building dispatchNearestCar(Dispatching dispatching) {
+    dispatching.nearestCar.dispatch(dispatching.context);
+    return dispatching.building;
+  }
+
+  /**
+   * Add one request to a backlog of the configured depth.
+   *
+   * @param adding the building to add to.
+   * @return true if the request was accepted.
+   */
+  @Benchmark
+  public boolean addRequest(Adding adding) {
+    return adding.building.addRequest(adding.next);
+  }
+
+  /**
+   * Generate a full status report.
+   *
+   * @return the building report.
+   */
+  @Benchmark
+  public BuildingReport report() {
+    return building.getElevatorSystemStatus();
+  }
+
+  /**
+   * Capture the status into a reused snapshot buffer.
+   *
+   * @return the snapshot.
+   */
+  @Benchmark
+  public BuildingSnapshot snapshot() {
+    building.captureSnapshot(snapshot);
+    return snapshot;
+  }
+
+  private Building newBuilding() {
+    Building fresh = new Building(floors, elevators, capacity);
+    fresh.startElevatorSystem();
+    building = fresh;
+    topUp();
+    return fresh;
+  }
+
+  private void topUp() {
+    topUp(building, pool, backlog);
+  }
+
+  private static void topUp(Building building, RequestPool pool, int backlog) {
+    while (pending(building) < backlog) {
+      building.addRequest(pool.next());
+    }
+  }
+
+  private static int pending(Building building) {
+    return building.getUpRequest().size() + building.getDownRequest().size();
+  }
+
+  /**
+   * A running building for the step benchmark, refilled before every step.
+   */
+  @State(Scope.Thread)
+  public static class Stepping {
+    Building building;
+    private RequestPool pool;
+    private int backlog;
+
+    /**
+     * Build a running building with a full backlog before every iteration.
+     *
+     * @param shape the benchmark holding the building parameters.
+     */
+    @Setup(Level.Iteration)
+    public void setUp(BuildingBenchmark shape) {
+      pool = new RequestPool(shape.floors, 42L);
+      backlog = shape.backlog;
+      building = new Building(shape.floors, shape.elevators, shape.capacity);
+      building.startElevatorSystem();
+      topUp(building, pool, backlog);
+    }
+
+    /**
+     * Refill the backlog the last step drained.
+     */
+    @Setup(Level.Invocation)
+    public void refill() {
+      topUp(building, pool, backlog);
+    }
+  }
+
+  /**
+   * A running building for the add benchmark. Before every add the last request is moved
+   * into its queue and the next one is drawn from the pool; once the backlog has grown
+   * well past its target depth the building is replaced with a fresh one.
+   */
+  @State(Scope.Thread)
+  public static class Adding {
+    Building building;
+    Request next;
+    private RequestPool pool;
+    private int floors;
+    private int elevators;
+    private int capacity;
+    private int backlog;
+
+    /**
+     * Build a running building with a full backlog before every iteration.
+     *
+     * @param shape the benchmark holding the building parameters.
+     */
+    @Setup(Level.Iteration)
+    public void setUp(BuildingBenchmark shape) {
+      pool = new RequestPool(shape.floors, 42L);
+      floors = shape.floors;
+      elevators = shape.elevators;
+      capacity = shape.capacity;
+      backlog = shape.backlog;
+      rebuild();
+    }
+
+    /**
+     * Queue the request added by the last call, and start over once the backlog is
+     * 100,000 requests past its target.
+     */
+    @Setup(Level.Invocation)
+    public void prepare() {
+      if (pending(building) > backlog + 100_000) {
+        rebuild();
+      }
+      next = pool.next();
+    }
+
+    private void rebuild() {
+      building = new Building(floors, elevators, capacity);
+      building.startElevatorSystem();
+      topUp(building, pool, backlog);
+    }
+  }
+
+  /**
+   * A running building for the dispatch benchmarks. Before every dispatch the backlog
+   * is refilled and every elevator is put back to idle at the ground floor, so each
+   * dispatch has the same free elevators to fill.
+   */
+  @State(Scope.Thread)
+  public static class Dispatching {
+    final DispatchStrategy terminal = new TerminalDispatchStrategy();
+    final DispatchStrategy nearestCar = new NearestCarDispatchStrategy();
+    Building building;
+    DispatchContext context;
+    private RequestPool pool;
+    private int backlog;
+
+    /**
+     * Build a running building before every iteration and capture the view of it a
+     * strategy is handed, from one step with a strategy that only records it.
+     *
+     * @param shape the benchmark holding the building parameters.
+     */
+    @Setup(Level.Iteration)
+    public void setUp(BuildingBenchmark shape) {
+      pool = new RequestPool(shape.floors, 42L);
+      backlog = shape.backlog;
+      building = new Building(shape.floors, shape.elevators, shape.capacity);
+      building.startElevatorSystem();
+
+      DispatchContext[] captured = new DispatchContext[1];
+      building.setDispatchStrategy(view -> captured[0] = view);
+      building.addRequest(pool.next());
+      building.stepElevatorSystem();
+      context = new DirectContext(captured[0]);
+    }
+
+    /**
+     * Free the elevators and refill the backlog the last dispatch drained.
+     */
+    @Setup(Level.Invocation)
+    public void reset() {
+      building.getElevators().forEach(Elevator::start);
+      topUp(building, pool, backlog);
+    }
+  }
+
+  /**
+   * A view of the building that hands assigned requests straight to the elevator. The
+   * latency bookkeeping the building adds is left out, since it would grow with every
+   * call when the elevators never reach their riders' floors.
+   */
+  private static final class DirectContext implements DispatchContext {
+    private final DispatchContext building;
+
+    DirectContext(DispatchContext building) {
+      this.building = building;
+    }
+
+    @Override
+    public int getNumberOfFloors() {
+      return building.getNumberOfFloors();
+    }
+
+    @Override
+    public int getElevatorCapacity() {
+      return building.getElevatorCapacity();
+    }
+
+    @Override
+    public List<Elevator> getElevators() {
+      return building.getElevators();
+    }
+
+    @Override
+    public RequestQueue getUpRequests() {
+      return building.getUpRequests();
+    }
+
+    @Override
+    public RequestQueue getDownRequests() {
+      return building.getDownRequests();
+    }
+
+    @Override
+    public void assign(Elevator elevator, List<Request> requests) {
+      elevator.processRequests(requests);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package benchmark;
+
+import elevator.Elevator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scanerzus.Request;
+
+/**
+ * Throughput of a single elevator step. The elevator is handed a full load whenever it
+ * is waiting at a terminal floor, so it keeps serving stops instead of idling.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ElevatorBenchmark {
+  @Param({"10", "30"})
+  public int floors;
+
+  @Param({"5", "20"})
+  public int capacity;
+
+  private Elevator elevator;
+  private List<Request> upLoad;
+  private List<Request> downLoad;
+
+  /**
+   * Build a started elevator and the loads it is fed.
+   */
+  @Setup(Level.Iteration)
+  public void setUp() {
+    elevator = new Elevator(floors, capacity);
+    elevator.start();
+
+    upLoad = new ArrayList<>();
+    downLoad = new ArrayList<>();
+    for (int i = 0; i < capacity; i++) {
+      int floor = 1 + i % (floors - 2);
+      upLoad.add(new Request(0, floor));
+      downLoad.add(new Request(floors - 1, floor));
+    }
+  }
+
+  /**
+   * One elevator step.
+   *
+   * @return the elevator, so the step can't be eliminated.
+   */
+  @Benchmark
+  public Elevator step() {
+    if (elevator.isTakingRequests()) {
+      elevator.processRequests(elevator.getCurrentFloor() == 0 ? upLoad : downLoad);
+    }
+    elevator.step();
+    return elevator;
+  }
+}
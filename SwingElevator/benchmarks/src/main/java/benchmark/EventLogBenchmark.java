@@ -0,0 +1,104 @@
+package benchmark;
+
+import building.Building;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import simulation.EventLogWriter;
+
+/**
+ * The cost of the binary event log on the step loop: a step of a plain building against
+ * a step of the same building with a log attached, with requests arriving every other
+ * step.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventLogBenchmark {
+  @Param({"10", "30"})
+  public int floors;
+
+  @Param({"3", "10"})
+  public int elevators;
+
+  private Building building;
+  private Building logged;
+  private RequestPool pool;
+  private RequestPool loggedPool;
+  private Path log;
+  private EventLogWriter writer;
+  private long steps;
+
+  /**
+   * Build two running buildings and open a log for one of them before every iteration.
+   *
+   * @throws IOException if the log can't be created.
+   */
+  @Setup(Level.Iteration)
+  public void setUp() throws IOException {
+    pool = new RequestPool(floors, 42L);
+    loggedPool = new RequestPool(floors, 42L);
+    building = new Building(floors, elevators, 20);
+    building.startElevatorSystem();
+    logged = new Building(floors, elevators, 20);
+    logged.startElevatorSystem();
+    log = Files.createTempFile("elevator", ".log");
+    writer = new EventLogWriter(log, logged);
+  }
+
+  /**
+   * Close and delete the log.
+   *
+   * @throws IOException if the log can't be written.
+   */
+  @TearDown(Level.Iteration)
+  public void tearDown() throws IOException {
+    writer.close();
+    Files.delete(log);
+  }
+
+  /**
+   * One step without logging.
+   *
+   * @return the building, so the step can't be eliminated.
+   */
+  @Benchmark
+  public Building step() {
+    if ((steps++ & 1) == 0) {
+      building.addRequest(pool.next());
+    }
+    building.stepElevatorSystem();
+    return building;
+  }
+
+  /**
+   * One step of the logged building, which records its changes and request events.
+   *
+   * @return the building, so the step can't be eliminated.
+   */
+  @Benchmark
+  public Building stepAndRecord() {
+    if ((steps++ & 1) == 0) {
+      logged.addRequest(loggedPool.next());
+    }
+    logged.stepElevatorSystem();
+    return logged;
+  }
+}
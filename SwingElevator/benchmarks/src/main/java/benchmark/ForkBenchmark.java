@@ -0,0 +1,88 @@
+package benchmark;
+
+import building.Building;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The cost of branching a running building for a what-if run: a fork, which shares the
+ * request backlog, against a deep copy through the checkpoint format, and a fork that
+ * takes its first step and so copies whatever it writes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ForkBenchmark {
+  @Param({"0", "100000", "1000000"})
+  public int backlog;
+
+  private Building building;
+
+  /**
+   * Build a running building with a backlog.
+   */
+  @Setup
+  public void setUp() {
+    RequestPool pool = new RequestPool(30, 42L);
+    building = new Building(30, 10, 20);
+    building.startElevatorSystem();
+    for (int i = 0; i < backlog; i++) {
+      building.addRequest(pool.next());
+    }
+    building.stepElevatorSystem();
+  }
+
+  /**
+   * Fork the building.
+   *
+   * @return the fork.
+   */
+  @Benchmark
+  public Building fork() {
+    return building.fork();
+  }
+
+  /**
+   * Fork the building and step the fork once.
+   *
+   * @return the fork.
+   */
+  @Benchmark
+  public Building forkAndStep() {
+    Building fork = building.fork();
+    fork.stepElevatorSystem();
+    return fork;
+  }
+
+  /**
+   * Copy the building by writing and reading it in the checkpoint format.
+   *
+   * @return the copy.
+   * @throws IOException never, the copy is in memory.
+   */
+  @Benchmark
+  public Building deepCopy() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    building.writeTo(new DataOutputStream(bytes));
+    return Building.readFrom(new DataInputStream(
+        new ByteArrayInputStream(bytes.toByteArray())));
+  }
+}
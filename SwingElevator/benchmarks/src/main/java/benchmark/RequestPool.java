@@ -0,0 +1,39 @@
+package benchmark;
+
+import scanerzus.Request;
+import simulation.RandomRequestSource;
+
+/**
+ * A fixed pool of pre-generated requests so the benchmarks don't measure request
+ * generation itself.
+ */
+final class RequestPool {
+  private static final int SIZE = 4096;
+
+  private final Request[] requests = new Request[SIZE];
+  private int next;
+
+  /**
+   * Creates a pool of random requests for a building.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @param seed           the seed of the random generator.
+   */
+  RequestPool(int numberOfFloors, long seed) {
+    RandomRequestSource source = new RandomRequestSource(numberOfFloors, 1.0, seed);
+    for (int i = 0; i < SIZE; i++) {
+      requests[i] = source.next();
+    }
+  }
+
+  /**
+   * Get the next request, cycling through the pool.
+   *
+   * @return a request.
+   */
+  Request next() {
+    Request request = requests[next];
+    next = (next + 1) & (SIZE - 1);
+    return request;
+  }
+}
@@ -0,0 +1,118 @@
+package benchmark;
+
+import building.Building;
+import building.BuildingLimits;
+import building.BuildingReport;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one step and one report as the building grows under the tower limits.
+ * Average time per operation should grow no faster than floors plus elevators.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScaleBenchmark {
+  @Param({"30", "60", "120", "240"})
+  public int floors;
+
+  @Param({"10", "30", "60", "120"})
+  public int elevators;
+
+  @Param({"1000"})
+  public int backlog;
+
+  private Building building;
+  private RequestPool pool;
+
+  /**
+   * Build a running tower with a backlog.
+   */
+  @Setup(Level.Iteration)
+  public void setUp() {
+    pool = new RequestPool(floors, 42L);
+    building = new Building(floors, elevators, 20, BuildingLimits.TOWER);
+    building.startElevatorSystem();
+    topUp();
+  }
+
+  /**
+   * One system step with the backlog kept at its target size.
+   *
+   * @param stepping the tower to step.
+   * @return the building, so the step can't be eliminated.
+   */
+  @Benchmark
+  public Building step(Stepping stepping) {
+    stepping.building.stepElevatorSystem();
+    return stepping.building;
+  }
+
+  /**
+   * Generate a full status report.
+   *
+   * @return the building report.
+   */
+  @Benchmark
+  public BuildingReport report() {
+    return building.getElevatorSystemStatus();
+  }
+
+  private void topUp() {
+    topUp(building, pool, backlog);
+  }
+
+  private static void topUp(Building building, RequestPool pool, int backlog) {
+    while (building.getUpRequest().size() + building.getDownRequest().size() < backlog) {
+      building.addRequest(pool.next());
+    }
+  }
+
+  /**
+   * A running tower for the step benchmark, refilled before every step so the refill
+   * is not counted as step cost.
+   */
+  @State(Scope.Thread)
+  public static class Stepping {
+    Building building;
+    private RequestPool pool;
+    private int backlog;
+
+    /**
+     * Build a running tower with a full backlog before every iteration.
+     *
+     * @param shape the benchmark holding the building parameters.
+     */
+    @Setup(Level.Iteration)
+    public void setUp(ScaleBenchmark shape) {
+      pool = new RequestPool(shape.floors, 42L);
+      backlog = shape.backlog;
+      building = new Building(shape.floors, shape.elevators, 20, BuildingLimits.TOWER);
+      building.startElevatorSystem();
+      topUp(building, pool, backlog);
+    }
+
+    /**
+     * Refill the backlog the last step drained.
+     */
+    @Setup(Level.Invocation)
+    public void refill() {
+      topUp(building, pool, backlog);
+    }
+  }
+}
@@ -1,28 +1,72 @@
 package building;
 
+import building.dispatch.DispatchContext;
+import building.dispatch.DispatchStrategy;
+import building.dispatch.TerminalDispatchStrategy;
 import building.enums.ElevatorSystemStatus;
+import building.metrics.LatencyMetrics;
 import elevator.Elevator;
 import elevator.ElevatorInterface;
 import elevator.ElevatorReport;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import scanerzus.Request;
 
 
 /**
  * This class represents a building that initializes the elevators and handles the requests.
+ * addRequest may be called from any thread. New requests go into a lock-free inbox and are
+ * moved into the up and down queues by the simulation thread, which is the only thread that
+ * may call the other methods.
  */
 public class Building implements BuildingInterface {
+  /**
+   * The number of elevators stepped by one task in parallel step mode.
+   */
+  private static final int STEP_TASK_SIZE = 16;
+
+  /**
+   * The first bytes of a checkpoint file, "ELVCKPT1" in ASCII.
+   */
+  private static final long CHECKPOINT_MAGIC = 0x454C56434B505431L;
+  private static final int CHECKPOINT_BUFFER = 1 << 16;
+
   private final int numberOfElevators;
   private final int numberOfFloors;
   private final int elevatorCapacity;
-  private ElevatorSystemStatus status;
-  private final List<Request> upRequest = new ArrayList<>();
-  private final List<Request> downRequest = new ArrayList<>();
+  private final BuildingLimits limits;
+  private volatile ElevatorSystemStatus status;
+  private final Queue<Request> incoming = new ConcurrentLinkedQueue<>();
+  private final RequestQueue upRequest;
+  private final RequestQueue downRequest;
   private final List<Elevator> elevators = new ArrayList<>();
+  private ForkJoinPool stepPool;
+  private long stepCount;
+  private DispatchStrategy dispatchStrategy = new TerminalDispatchStrategy();
+  private final DispatchContext dispatchContext = new BuildingDispatchContext();
+  private final LatencyTracker latencyTracker;
+  private final boolean[] doorsClosed;
+  private RequestLifecycleListener requestListener;
 
   /**
-   * The constructor for the building.
+   * The constructor for the building using the standard limits.
    *
    * @param numberOfFloors the number of floors in the building.
    * @param numberOfElevators the number of elevators in the building.
@@ -34,36 +78,91 @@ public class Building implements BuildingInterface {
    */
   public Building(int numberOfFloors, int numberOfElevators, int elevatorCapacity)
       throws IllegalArgumentException {
-    if (numberOfFloors < 3 || numberOfFloors > 30) {
-      throw new IllegalArgumentException("Number of floors must be between 3 and 30.");
+    this(numberOfFloors, numberOfElevators, elevatorCapacity, BuildingLimits.STANDARD);
+  }
+
+  /**
+   * The constructor for the building with a custom limits profile.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @param numberOfElevators the number of elevators in the building.
+   * @param elevatorCapacity the capacity of the elevators in the building.
+   * @param limits the allowed range of floors, elevators and capacity.
+   *
+   * @throws IllegalArgumentException if limits is null or any argument is outside its range
+   */
+  public Building(int numberOfFloors, int numberOfElevators, int elevatorCapacity,
+                  BuildingLimits limits) throws IllegalArgumentException {
+    if (limits == null) {
+      throw new IllegalArgumentException("Limits can't be null.");
+    }
+
+    if (numberOfFloors < limits.getMinFloors() || numberOfFloors > limits.getMaxFloors()) {
+      throw new IllegalArgumentException("Number of floors must be between "
+          + limits.getMinFloors() + " and " + limits.getMaxFloors() + ".");
     }
 
-    if (numberOfElevators <= 0 || numberOfElevators > 10) {
-      throw new IllegalArgumentException("Number of elevators must be between 1 and 10.");
+    if (numberOfElevators < limits.getMinElevators()
+        || numberOfElevators > limits.getMaxElevators()) {
+      throw new IllegalArgumentException("Number of elevators must be between "
+          + limits.getMinElevators() + " and " + limits.getMaxElevators() + ".");
     }
 
-    if (elevatorCapacity < 3 || elevatorCapacity > 20) {
-      throw new IllegalArgumentException("Capacity of elevators must be between 3 and 20.");
+    if (elevatorCapacity < limits.getMinCapacity() || elevatorCapacity > limits.getMaxCapacity()) {
+      throw new IllegalArgumentException("Capacity of elevators must be between "
+          + limits.getMinCapacity() + " and " + limits.getMaxCapacity() + ".");
     }
 
     this.numberOfFloors = numberOfFloors;
     this.numberOfElevators = numberOfElevators;
     this.elevatorCapacity = elevatorCapacity;
+    this.limits = limits;
     status = ElevatorSystemStatus.outOfService;
+    this.upRequest = new RequestQueue();
+    this.downRequest = new RequestQueue();
 
     for (int i = 0; i < this.numberOfElevators; i++) {
-      elevators.add(new Elevator(this.numberOfFloors, this.elevatorCapacity));
+      // ids are indexes into this building's per-elevator arrays
+      elevators.add(new Elevator(i, this.numberOfFloors, this.elevatorCapacity, limits));
+    }
+    this.latencyTracker = new LatencyTracker(numberOfElevators);
+    this.doorsClosed = new boolean[numberOfElevators];
+    for (int i = 0; i < numberOfElevators; i++) {
+      doorsClosed[i] = elevators.get(i).isDoorClosed();
     }
   }
 
+  private Building(Building source) {
+    this.numberOfFloors = source.numberOfFloors;
+    this.numberOfElevators = source.numberOfElevators;
+    this.elevatorCapacity = source.elevatorCapacity;
+    this.limits = source.limits;
+    this.status = source.status;
+    this.stepCount = source.stepCount;
+    this.dispatchStrategy = source.dispatchStrategy;
+    this.upRequest = source.upRequest.fork();
+    this.downRequest = source.downRequest.fork();
+    for (Elevator elevator : source.elevators) {
+      elevators.add(elevator.copy());
+    }
+    this.latencyTracker = source.latencyTracker.copy();
+    this.doorsClosed = source.doorsClosed.clone();
+  }
+
 
   @Override
   public void stopElevatorSystem() {
     if (status != ElevatorSystemStatus.outOfService && status != ElevatorSystemStatus.stopping) {
       elevators.forEach(Elevator::takeOutOfService);
       status = ElevatorSystemStatus.stopping;
+      drainIncoming();
       this.upRequest.clear();
       this.downRequest.clear();
+      latencyTracker.clear();
+      if (requestListener != null) {
+        requestListener.requestsCleared(stepCount);
+      }
+      notifyUpdated();
     }
   }
 
@@ -74,8 +173,15 @@ public class Building implements BuildingInterface {
     }
 
     if (status != ElevatorSystemStatus.running) {
+      // drop anything that slipped in while the system was stopping
+      drainIncoming();
       elevators.forEach(Elevator::start);
+      // a parked car may have stopped with its door open; start closes it
+      for (int i = 0; i < numberOfElevators; i++) {
+        doorsClosed[i] = elevators.get(i).isDoorClosed();
+      }
       status = ElevatorSystemStatus.running;
+      notifyUpdated();
     }
 
     return true;
@@ -83,14 +189,22 @@ public class Building implements BuildingInterface {
 
   @Override
   public BuildingReport getElevatorSystemStatus() {
+    drainIncoming();
     ElevatorReport[] elevatorReports = new ElevatorReport[numberOfElevators];
 
     for (int i = 0; i < numberOfElevators; i++) {
       elevatorReports[i] = elevators.get(i).getElevatorStatus();
     }
 
-    return new BuildingReport(numberOfFloors, numberOfElevators,
-                              elevatorCapacity, elevatorReports, upRequest, downRequest, status);
+    return new BuildingReport(numberOfFloors, numberOfElevators, elevatorCapacity,
+                              elevatorReports, upRequest.view(), downRequest.view(), status);
+  }
+
+  @Override
+  public void captureSnapshot(BuildingSnapshot snapshot) {
+    drainIncoming();
+    snapshot.capture(numberOfFloors, elevatorCapacity, elevators,
+        upRequest, downRequest, status);
   }
 
   @Override
@@ -108,12 +222,8 @@ public class Building implements BuildingInterface {
           if (request.getEndFloor() >= 0 && request.getEndFloor() < this.numberOfFloors) {
             // Check if start and end floor are the same
             if (request.getStartFloor() != request.getEndFloor()) {
-              // Check which one is greater
-              if (request.getStartFloor() > request.getEndFloor()) {
-                downRequest.add(request);
-              } else {
-                upRequest.add(request);
-              }
+              // Hand over to the simulation thread, which sorts it by direction
+              incoming.offer(request);
             } else {
               throw new IllegalArgumentException("Start and end floor can't be the same");
             }
@@ -135,14 +245,23 @@ public class Building implements BuildingInterface {
 
   @Override
   public void stepElevatorSystem() {
+    drainIncoming();
+    stepCount++;
     if (status != ElevatorSystemStatus.outOfService) {
       if (status != ElevatorSystemStatus.stopping) {
         distributeRequests();
       }
 
-      for (ElevatorInterface elevator : elevators) {
-        elevator.step();
+      if (stepPool != null && elevators.size() > STEP_TASK_SIZE) {
+        // each car only touches its own state, so cars can step concurrently.
+        // invoke returns once every car has stepped, which is the end of the tick.
+        stepPool.invoke(new StepTask(elevators, 0, elevators.size()));
+      } else {
+        for (ElevatorInterface elevator : elevators) {
+          elevator.step();
+        }
       }
+      trackDoorOpenings();
 
       if (status == ElevatorSystemStatus.stopping) {
         boolean allElevatorsOnGroundFloor = true;
@@ -158,33 +277,390 @@ public class Building implements BuildingInterface {
         }
       }
     }
+    notifyUpdated();
+  }
+
+  @Override
+  public long advanceElevatorSystem(long steps) {
+    if (steps < 0) {
+      throw new IllegalArgumentException("Number of steps can't be negative.");
+    }
+
+    long remaining = steps;
+    while (remaining > 0) {
+      drainIncoming();
+      if (status == ElevatorSystemStatus.outOfService) {
+        // nothing moves while the system is out of service
+        stepCount += remaining;
+        notifyUpdated();
+        break;
+      }
+
+      long jump = Math.min(quietSteps(), remaining);
+      if (jump == 0) {
+        stepElevatorSystem();
+        remaining--;
+        continue;
+      }
+
+      for (Elevator elevator : elevators) {
+        elevator.skipSteps((int) jump);
+      }
+      stepCount += jump;
+      remaining -= jump;
+      notifyUpdated();
+    }
+
+    return steps;
+  }
+
+  /**
+   * Tell the latency tracker about every elevator in service whose door opened in the
+   * last step. Skipped steps never open a door, so only real steps need this.
+   */
+  private void trackDoorOpenings() {
+    for (int i = 0; i < numberOfElevators; i++) {
+      Elevator elevator = elevators.get(i);
+      boolean closed = elevator.isDoorClosed();
+      if (doorsClosed[i] && !closed && !elevator.isOutOfService()) {
+        latencyTracker.doorOpened(i, elevator.getCurrentFloor(), stepCount);
+      }
+      doorsClosed[i] = closed;
+    }
+  }
+
+  /**
+   * Get the number of upcoming steps in which nothing but timers and car positions
+   * change. This is 0 when requests are waiting to be dispatched, or when a stopping
+   * system is about to go out of service.
+   *
+   * @return the number of steps that can be skipped.
+   */
+  private long quietSteps() {
+    if (status == ElevatorSystemStatus.running
+        && (!upRequest.isEmpty() || !downRequest.isEmpty())) {
+      return 0;
+    }
+
+    long quiet = Long.MAX_VALUE;
+    boolean allElevatorsOnGroundFloor = true;
+    for (Elevator elevator : elevators) {
+      int elevatorQuiet = elevator.getQuietSteps();
+      if (elevatorQuiet < quiet) {
+        quiet = elevatorQuiet;
+      }
+      if (elevator.getCurrentFloor() != 0) {
+        allElevatorsOnGroundFloor = false;
+      }
+    }
+
+    if (status == ElevatorSystemStatus.stopping && allElevatorsOnGroundFloor) {
+      return 0;
+    }
+    return quiet;
+  }
+
+  /**
+   * Move requests submitted since the last drain into the up and down queues, stamping
+   * them with the current step for latency tracking. Requests that arrive after the
+   * system started stopping are dropped.
+   */
+  private void drainIncoming() {
+    Request request;
+    while ((request = incoming.poll()) != null) {
+      if (status != ElevatorSystemStatus.running) {
+        continue;
+      }
+      if (request.getStartFloor() > request.getEndFloor()) {
+        downRequest.add(request, stepCount);
+      } else {
+        upRequest.add(request, stepCount);
+      }
+      if (requestListener != null) {
+        requestListener.requestQueued(request.getStartFloor(), request.getEndFloor(),
+            stepCount);
+      }
+    }
+  }
+
+  /**
+   * Tell the listener the building has moved on, after a step, a run of skipped steps,
+   * a start or a stop.
+   */
+  private void notifyUpdated() {
+    if (requestListener != null) {
+      requestListener.buildingUpdated(stepCount);
+    }
   }
 
   private void distributeRequests() {
     if (!upRequest.isEmpty() || !downRequest.isEmpty()) {
-      for (ElevatorInterface elevator : elevators) {
-        // Check if elevator takes a request
-        if (elevator.isTakingRequests()) {
-          // Assign upward requests to elevators on the first floor
-          if (elevator.getCurrentFloor() == 0) {
-            elevator.processRequests(getRequest(upRequest));
-          } else if (elevator.getCurrentFloor() == numberOfFloors - 1) {
-            // Assign downward requests to elevators on the top floor
-            elevator.processRequests(getRequest(downRequest));
-          }
+      dispatchStrategy.dispatch(dispatchContext);
+    }
+  }
+
+  /**
+   * Replace the policy used to hand pending requests to elevators.
+   * The default is TerminalDispatchStrategy.
+   *
+   * @param strategy the new dispatch strategy.
+   * @throws IllegalArgumentException if strategy is null.
+   */
+  public void setDispatchStrategy(DispatchStrategy strategy) {
+    if (strategy == null) {
+      throw new IllegalArgumentException("Dispatch strategy can't be null.");
+    }
+    this.dispatchStrategy = strategy;
+  }
+
+  public DispatchStrategy getDispatchStrategy() {
+    return dispatchStrategy;
+  }
+
+  /**
+   * Set the listener told about every request as it is queued, assigned, picked up and
+   * delivered. It is called on the simulation thread.
+   *
+   * @param listener the listener, or null to remove it.
+   */
+  public void setRequestListener(RequestLifecycleListener listener) {
+    this.requestListener = listener;
+    latencyTracker.setListener(listener);
+  }
+
+  public RequestLifecycleListener getRequestListener() {
+    return requestListener;
+  }
+
+  /**
+   * The view of this building handed to the dispatch strategy.
+   */
+  private final class BuildingDispatchContext implements DispatchContext {
+    @Override
+    public int getNumberOfFloors() {
+      return numberOfFloors;
+    }
+
+    @Override
+    public int getElevatorCapacity() {
+      return elevatorCapacity;
+    }
+
+    @Override
+    public List<Elevator> getElevators() {
+      return elevators;
+    }
+
+    @Override
+    public RequestQueue getUpRequests() {
+      return upRequest;
+    }
+
+    @Override
+    public RequestQueue getDownRequests() {
+      return downRequest;
+    }
+
+    @Override
+    public void assign(Elevator elevator, List<Request> requests) {
+      elevator.processRequests(requests);
+      latencyTracker.assigned(elevator.getElevatorId(), requests, stepCount);
+      if (requestListener != null) {
+        for (Request request : requests) {
+          requestListener.requestAssigned(elevator.getElevatorId(), request.getStartFloor(),
+              request.getEndFloor(), stepCount);
         }
       }
     }
   }
 
-  private List<Request> getRequest(List<Request> requests) {
-    List<Request> requestToReturn = new ArrayList<>();
+  /**
+   * Step elevators in parallel on the given pool, or sequentially if pool is null.
+   * Both modes produce exactly the same state after every step. Buildings with no more
+   * than 16 elevators are always stepped sequentially.
+   *
+   * @param pool the pool to step elevators on, or null for sequential stepping.
+   */
+  public void setParallelStepping(ForkJoinPool pool) {
+    this.stepPool = pool;
+  }
+
+  /**
+   * Steps a contiguous range of elevators, splitting the range until it is small enough.
+   */
+  private static final class StepTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Elevator> elevators;
+    private final int from;
+    private final int to;
 
-    while (!requests.isEmpty() && (requestToReturn.size() < elevatorCapacity)) {
-      requestToReturn.add(requests.remove(0));
+    StepTask(List<Elevator> elevators, int from, int to) {
+      this.elevators = elevators;
+      this.from = from;
+      this.to = to;
     }
 
-    return requestToReturn;
+    @Override
+    protected void compute() {
+      if (to - from <= STEP_TASK_SIZE) {
+        for (int i = from; i < to; i++) {
+          elevators.get(i).step();
+        }
+        return;
+      }
+
+      int middle = (from + to) >>> 1;
+      invokeAll(new StepTask(elevators, from, middle), new StepTask(elevators, middle, to));
+    }
+  }
+
+  /**
+   * Create an independent building in exactly the state of this one, for running
+   * what-if experiments from it. The request backlog is shared with this building until
+   * either of them adds to it, so forking a building with a large backlog is cheap; the
+   * elevators and latency tracking are copied. The fork keeps the dispatch strategy but
+   * has no request listener and steps sequentially.
+   * <p></p>
+   * Once created, a fork and this building share nothing either of them writes, so each can be
+   * stepped on its own thread. Strategies shared between forks stepped on different
+   * threads must be safe to use concurrently; the strategies in this project keep no
+   * state between dispatches.
+   *
+   * @return the fork.
+   */
+  public Building fork() {
+    drainIncoming();
+    return new Building(this);
+  }
+
+  /**
+   * Save the whole building to a file: its shape and limits, the step count, every
+   * elevator, both request queues and the latency tracking. The dispatch strategy,
+   * parallel stepping and request listener are settings, not state, and are not saved.
+   * The file is replaced in one atomic move once the new checkpoint is complete, so a
+   * failed write leaves the previous checkpoint in place.
+   *
+   * @param target the file to create or replace.
+   * @throws IOException if the file can't be written.
+   */
+  public void checkpoint(Path target) throws IOException {
+    // write next to the target and move it into place, so the old checkpoint survives a
+    // crash or a full disk until the new one is complete on disk
+    Path absolute = target.toAbsolutePath();
+    Path temporary = Files.createTempFile(absolute.getParent(),
+        absolute.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+            Channels.newOutputStream(channel), CHECKPOINT_BUFFER));
+        writeTo(out);
+        out.flush();
+        channel.force(true);
+      }
+      Files.move(temporary, absolute, StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temporary);
+      throw e;
+    }
+  }
+
+  /**
+   * Load a building saved by checkpoint. It continues exactly where the saved one was,
+   * using the default dispatch strategy until another one is set.
+   *
+   * @param source the checkpoint file.
+   * @return the restored building.
+   * @throws IOException if the file can't be read or is not a valid checkpoint.
+   */
+  public static Building restore(Path source) throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(source), CHECKPOINT_BUFFER))) {
+      return readFrom(in);
+    }
+  }
+
+  /**
+   * Write the whole building in the checkpoint format. Requests still waiting in the
+   * inbox are queued first.
+   *
+   * @param out the output to write to.
+   * @throws IOException if writing fails.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    drainIncoming();
+    out.writeLong(CHECKPOINT_MAGIC);
+    out.writeInt(numberOfFloors);
+    out.writeInt(numberOfElevators);
+    out.writeInt(elevatorCapacity);
+    out.writeInt(limits.getMinFloors());
+    out.writeInt(limits.getMaxFloors());
+    out.writeInt(limits.getMinElevators());
+    out.writeInt(limits.getMaxElevators());
+    out.writeInt(limits.getMinCapacity());
+    out.writeInt(limits.getMaxCapacity());
+    out.writeLong(stepCount);
+    out.writeByte(status.ordinal());
+
+    for (int i = 0; i < numberOfElevators; i++) {
+      out.writeBoolean(doorsClosed[i]);
+      elevators.get(i).writeTo(out);
+    }
+    upRequest.writeTo(out);
+    downRequest.writeTo(out);
+    latencyTracker.writeTo(out);
+  }
+
+  /**
+   * Read a building written by writeTo.
+   *
+   * @param in the input to read from.
+   * @return the restored building.
+   * @throws IOException if reading fails or the data is not a valid checkpoint.
+   */
+  public static Building readFrom(DataInput in) throws IOException {
+    if (in.readLong() != CHECKPOINT_MAGIC) {
+      throw new IOException("Not a building checkpoint.");
+    }
+    int floors = in.readInt();
+    int count = in.readInt();
+    int capacity = in.readInt();
+
+    Building building;
+    try {
+      BuildingLimits limits = new BuildingLimits(in.readInt(), in.readInt(), in.readInt(),
+          in.readInt(), in.readInt(), in.readInt());
+      building = new Building(floors, count, capacity, limits);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Checkpoint has an invalid building shape.", e);
+    }
+
+    building.stepCount = in.readLong();
+    int statusIndex = in.readByte();
+    ElevatorSystemStatus[] statuses = ElevatorSystemStatus.values();
+    if (building.stepCount < 0 || statusIndex < 0 || statusIndex >= statuses.length) {
+      throw new IOException("Checkpoint has an invalid building state.");
+    }
+    building.status = statuses[statusIndex];
+
+    for (int i = 0; i < count; i++) {
+      building.doorsClosed[i] = in.readBoolean();
+      building.elevators.get(i).readFrom(in);
+    }
+    building.upRequest.readFrom(in, floors);
+    building.downRequest.readFrom(in, floors);
+    building.latencyTracker.readFrom(in);
+    return building;
+  }
+
+  @Override
+  public LatencyMetrics getLatencyMetrics() {
+    return latencyTracker.getMetrics().copy();
+  }
+
+  public long getStepCount() {
+    return stepCount;
   }
 
   public int getNumberOfElevators() {
@@ -199,6 +675,10 @@ public class Building implements BuildingInterface {
     return elevatorCapacity;
   }
 
+  public BuildingLimits getLimits() {
+    return limits;
+  }
+
   public ElevatorSystemStatus getStatus() {
     return status;
   }
@@ -208,11 +688,13 @@ public class Building implements BuildingInterface {
   }
 
   public List<Request> getUpRequest() {
-    return upRequest;
+    drainIncoming();
+    return upRequest.view();
   }
 
   public List<Request> getDownRequest() {
-    return downRequest;
+    drainIncoming();
+    return downRequest.view();
   }
 
 
@@ -1,6 +1,7 @@
 package building;
 
 import building.enums.ElevatorSystemStatus;
+import building.metrics.LatencyMetrics;
 import elevator.Elevator;
 import java.util.List;
 import scanerzus.Request;
@@ -30,8 +31,19 @@ public interface BuildingInterface {
    */
   BuildingReport getElevatorSystemStatus();
 
+  /**
+   * This method is used to copy the state of the elevator system into a reusable buffer.
+   * Unlike getElevatorSystemStatus, this allocates nothing once the snapshot has been
+   * sized for this building.
+   *
+   * @param snapshot the buffer to write the state into.
+   */
+  void captureSnapshot(BuildingSnapshot snapshot);
+
   /**
    * This method is used to add a request to the building.
+   * It is safe to call from any thread and never blocks; the request is queued up for
+   * the next step.
    *
    * @param request the request to be added.
    *
@@ -47,6 +59,34 @@ public interface BuildingInterface {
    */
   void stepElevatorSystem();
 
+  /**
+   * This method is used to advance the elevator system by a number of steps.
+   * The result is the same as calling stepElevatorSystem that many times, but runs of
+   * steps in which no request is waiting and every elevator is only counting down a timer
+   * or travelling between stops are applied in one go, and parked elevators cost nothing.
+   * Requests added from other threads during such a run are handled after it.
+   *
+   * @param steps the number of steps to advance.
+   * @return the number of steps advanced.
+   * @throws IllegalArgumentException if steps is negative.
+   */
+  long advanceElevatorSystem(long steps);
+
+  /**
+   * This method is used to get the number of steps the elevator system has been stepped.
+   *
+   * @return the step count.
+   */
+  long getStepCount();
+
+  /**
+   * This method is used to get the wait and ride time histograms of the requests served
+   * so far. Requests that are dropped when the system stops are not counted.
+   *
+   * @return a copy of the latency metrics.
+   */
+  LatencyMetrics getLatencyMetrics();
+
   /**
    * This method is used to get the number of elevators in the building.
    *
@@ -85,14 +125,14 @@ public interface BuildingInterface {
   /**
    * This method is used to get the up requests in the building.
    *
-   * @return the up requests in the building.
+   * @return a read-only view of the up requests in the building.
    */
   List<Request> getUpRequest();
 
   /**
    * This method is used to get the down requests in the building.
    *
-   * @return the down requests in the building.
+   * @return a read-only view of the down requests in the building.
    */
   List<Request> getDownRequest();
 
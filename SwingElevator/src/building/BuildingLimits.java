@@ -0,0 +1,88 @@
+package building;
+
+/**
+ * This class represents the range of building sizes a simulation accepts.
+ * STANDARD is the original 30 floor / 10 elevator / capacity 20 profile. TOWER is meant
+ * for high-rise and campus models.
+ */
+public final class BuildingLimits {
+  /**
+   * The default limits: 3 to 30 floors, 1 to 10 elevators, capacity 3 to 20.
+   */
+  public static final BuildingLimits STANDARD = new BuildingLimits(3, 30, 1, 10, 3, 20);
+
+  /**
+   * Limits for large buildings: 3 to 256 floors, 1 to 128 elevators, capacity 3 to 64.
+   */
+  public static final BuildingLimits TOWER = new BuildingLimits(3, 256, 1, 128, 3, 64);
+
+  private final int minFloors;
+  private final int maxFloors;
+  private final int minElevators;
+  private final int maxElevators;
+  private final int minCapacity;
+  private final int maxCapacity;
+
+  /**
+   * Creates a custom limits profile. All ranges are inclusive.
+   *
+   * @param minFloors    the minimum number of floors.
+   * @param maxFloors    the maximum number of floors.
+   * @param minElevators the minimum number of elevators.
+   * @param maxElevators the maximum number of elevators.
+   * @param minCapacity  the minimum elevator capacity.
+   * @param maxCapacity  the maximum elevator capacity.
+   * @throws IllegalArgumentException if a range is empty, there could be fewer than 2
+   *         floors or fewer than 1 elevator or capacity, or more floors than a request
+   *         queue can address.
+   */
+  public BuildingLimits(int minFloors, int maxFloors, int minElevators, int maxElevators,
+                        int minCapacity, int maxCapacity) {
+    if (minFloors < 2 || minFloors > maxFloors) {
+      throw new IllegalArgumentException("Floor range must start at 2 or more and not be empty.");
+    }
+    if (maxFloors > RequestQueue.MAX_FLOORS) {
+      throw new IllegalArgumentException(
+          "Floor range can't go above " + RequestQueue.MAX_FLOORS + ".");
+    }
+    if (minElevators < 1 || minElevators > maxElevators) {
+      throw new IllegalArgumentException(
+          "Elevator range must start at 1 or more and not be empty.");
+    }
+    if (minCapacity < 1 || minCapacity > maxCapacity) {
+      throw new IllegalArgumentException(
+          "Capacity range must start at 1 or more and not be empty.");
+    }
+
+    this.minFloors = minFloors;
+    this.maxFloors = maxFloors;
+    this.minElevators = minElevators;
+    this.maxElevators = maxElevators;
+    this.minCapacity = minCapacity;
+    this.maxCapacity = maxCapacity;
+  }
+
+  public int getMinFloors() {
+    return minFloors;
+  }
+
+  public int getMaxFloors() {
+    return maxFloors;
+  }
+
+  public int getMinElevators() {
+    return minElevators;
+  }
+
+  public int getMaxElevators() {
+    return maxElevators;
+  }
+
+  public int getMinCapacity() {
+    return minCapacity;
+  }
+
+  public int getMaxCapacity() {
+    return maxCapacity;
+  }
+}
@@ -0,0 +1,324 @@
+package building;
+
+import building.enums.Direction;
+import building.enums.ElevatorSystemStatus;
+import elevator.Elevator;
+import elevator.ElevatorReport;
+import elevator.StopSet;
+import java.util.ArrayList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * A reusable, caller-owned buffer holding the state of a building and its elevators.
+ * The state is kept as one array per field, indexed by elevator, plus the stop bitset
+ * of every elevator packed into a single long array. Capturing into a snapshot of the
+ * same building shape allocates nothing, so it can be polled every step.
+ * Report objects are only built on demand by toElevatorReport and toBuildingReport.
+ */
+public final class BuildingSnapshot {
+  /**
+   * The number of pending requests per direction copied by default.
+   */
+  public static final int DEFAULT_REQUEST_LIMIT = 64;
+
+  private final int requestLimit;
+
+  private int numFloors;
+  private int numElevators;
+  private int elevatorCapacity;
+  private int wordsPerElevator;
+  private ElevatorSystemStatus systemStatus;
+
+  private int[] elevatorIds = new int[0];
+  private int[] currentFloors = new int[0];
+  private Direction[] directions = new Direction[0];
+  private boolean[] doorClosed = new boolean[0];
+  private int[] doorOpenTimers = new int[0];
+  private int[] endWaitTimers = new int[0];
+  private boolean[] outOfService = new boolean[0];
+  private boolean[] takingRequests = new boolean[0];
+  private long[] stopWords = new long[0];
+
+  private int upRequestCount;
+  private int downRequestCount;
+  private final int[] upRequests;
+  private final int[] downRequests;
+
+  /**
+   * Creates an empty snapshot that copies up to DEFAULT_REQUEST_LIMIT pending requests
+   * per direction.
+   */
+  public BuildingSnapshot() {
+    this(DEFAULT_REQUEST_LIMIT);
+  }
+
+  /**
+   * Creates an empty snapshot.
+   *
+   * @param requestLimit the number of pending requests per direction to copy. Counts
+   *                     are always exact.
+   * @throws IllegalArgumentException if requestLimit is negative.
+   */
+  public BuildingSnapshot(int requestLimit) {
+    if (requestLimit < 0) {
+      throw new IllegalArgumentException("Request limit can't be negative.");
+    }
+    this.requestLimit = requestLimit;
+    this.upRequests = new int[requestLimit * 2];
+    this.downRequests = new int[requestLimit * 2];
+  }
+
+  /**
+   * Fill the snapshot from a building. Arrays are only reallocated when the building
+   * has more elevators or floors than any building captured before.
+   *
+   * @param numFloors        the number of floors.
+   * @param elevatorCapacity the capacity of the elevators.
+   * @param elevators        the elevators of the building.
+   * @param up               the pending up requests.
+   * @param down             the pending down requests.
+   * @param status           the status of the elevator system.
+   */
+  void capture(int numFloors, int elevatorCapacity, List<Elevator> elevators,
+               RequestQueue up, RequestQueue down, ElevatorSystemStatus status) {
+    int count = elevators.size();
+    int words = count == 0 ? 0 : elevators.get(0).getStopWordCount();
+    ensureCapacity(count, words);
+
+    this.numFloors = numFloors;
+    this.numElevators = count;
+    this.elevatorCapacity = elevatorCapacity;
+    this.wordsPerElevator = words;
+    this.systemStatus = status;
+
+    for (int i = 0; i < count; i++) {
+      Elevator elevator = elevators.get(i);
+      elevatorIds[i] = elevator.getElevatorId();
+      currentFloors[i] = elevator.getCurrentFloor();
+      directions[i] = elevator.getDirection();
+      doorClosed[i] = elevator.isDoorClosed();
+      doorOpenTimers[i] = elevator.getDoorOpenTimeLeft();
+      endWaitTimers[i] = elevator.getStopWaitTimeLeft();
+      outOfService[i] = elevator.isOutOfService();
+      takingRequests[i] = elevator.isTakingRequests();
+      elevator.copyStopWords(stopWords, i * words);
+    }
+
+    upRequestCount = copyRequests(up, upRequests);
+    downRequestCount = copyRequests(down, downRequests);
+  }
+
+  private void ensureCapacity(int count, int words) {
+    if (currentFloors.length < count) {
+      elevatorIds = new int[count];
+      currentFloors = new int[count];
+      directions = new Direction[count];
+      doorClosed = new boolean[count];
+      doorOpenTimers = new int[count];
+      endWaitTimers = new int[count];
+      outOfService = new boolean[count];
+      takingRequests = new boolean[count];
+    }
+    if (stopWords.length < count * words) {
+      stopWords = new long[count * words];
+    }
+  }
+
+  private int copyRequests(RequestQueue requests, int[] target) {
+    int copied = Math.min(requests.size(), requestLimit);
+    for (int i = 0; i < copied; i++) {
+      target[2 * i] = requests.getStartFloor(i);
+      target[2 * i + 1] = requests.getEndFloor(i);
+    }
+    return requests.size();
+  }
+
+  public int getRequestLimit() {
+    return requestLimit;
+  }
+
+  public int getNumFloors() {
+    return numFloors;
+  }
+
+  public int getNumElevators() {
+    return numElevators;
+  }
+
+  public int getElevatorCapacity() {
+    return elevatorCapacity;
+  }
+
+  public ElevatorSystemStatus getSystemStatus() {
+    return systemStatus;
+  }
+
+  public int getElevatorId(int elevator) {
+    return elevatorIds[elevator];
+  }
+
+  public int getCurrentFloor(int elevator) {
+    return currentFloors[elevator];
+  }
+
+  public Direction getDirection(int elevator) {
+    return directions[elevator];
+  }
+
+  public boolean isDoorClosed(int elevator) {
+    return doorClosed[elevator];
+  }
+
+  public int getDoorOpenTimer(int elevator) {
+    return doorOpenTimers[elevator];
+  }
+
+  public int getEndWaitTimer(int elevator) {
+    return endWaitTimers[elevator];
+  }
+
+  public boolean isOutOfService(int elevator) {
+    return outOfService[elevator];
+  }
+
+  public boolean isTakingRequests(int elevator) {
+    return takingRequests[elevator];
+  }
+
+  /**
+   * Check if an elevator has a stop at a floor.
+   *
+   * @param elevator the index of the elevator.
+   * @param floor    the floor to check.
+   * @return true if the elevator has to stop at the floor.
+   */
+  public boolean hasStop(int elevator, int floor) {
+    long word = stopWords[elevator * wordsPerElevator + (floor >> 6)];
+    return (word & (1L << floor)) != 0;
+  }
+
+  /**
+   * Get the number of bitset words per elevator in getStopWords.
+   *
+   * @return the number of words per elevator.
+   */
+  public int getWordsPerElevator() {
+    return wordsPerElevator;
+  }
+
+  /**
+   * Get the packed stop bitsets. Elevator i owns the words starting at
+   * i * getWordsPerElevator(). The array is owned by the snapshot and is overwritten by
+   * the next capture.
+   *
+   * @return the packed stop words.
+   */
+  public long[] getStopWords() {
+    return stopWords;
+  }
+
+  /**
+   * Get the number of pending up requests.
+   *
+   * @return the exact number of up requests.
+   */
+  public int getUpRequestCount() {
+    return upRequestCount;
+  }
+
+  /**
+   * Get the number of pending down requests.
+   *
+   * @return the exact number of down requests.
+   */
+  public int getDownRequestCount() {
+    return downRequestCount;
+  }
+
+  /**
+   * Get the start floor of a copied up request.
+   *
+   * @param index the position in the queue, less than the request limit.
+   * @return the start floor.
+   */
+  public int getUpRequestStart(int index) {
+    return upRequests[2 * index];
+  }
+
+  /**
+   * Get the end floor of a copied up request.
+   *
+   * @param index the position in the queue, less than the request limit.
+   * @return the end floor.
+   */
+  public int getUpRequestEnd(int index) {
+    return upRequests[2 * index + 1];
+  }
+
+  /**
+   * Get the start floor of a copied down request.
+   *
+   * @param index the position in the queue, less than the request limit.
+   * @return the start floor.
+   */
+  public int getDownRequestStart(int index) {
+    return downRequests[2 * index];
+  }
+
+  /**
+   * Get the end floor of a copied down request.
+   *
+   * @param index the position in the queue, less than the request limit.
+   * @return the end floor.
+   */
+  public int getDownRequestEnd(int index) {
+    return downRequests[2 * index + 1];
+  }
+
+  /**
+   * Build a report for one elevator from the snapshot.
+   *
+   * @param elevator the index of the elevator.
+   * @return a new elevator report.
+   */
+  public ElevatorReport toElevatorReport(int elevator) {
+    StopSet stops = StopSet.fromWords(stopWords, elevator * wordsPerElevator, numFloors);
+
+    return new ElevatorReport(elevatorIds[elevator],
+        currentFloors[elevator],
+        directions[elevator],
+        doorClosed[elevator],
+        stops,
+        doorOpenTimers[elevator],
+        endWaitTimers[elevator],
+        outOfService[elevator],
+        takingRequests[elevator]);
+  }
+
+  /**
+   * Build a building report from the snapshot. The request lists hold at most the
+   * request limit of this snapshot.
+   *
+   * @return a new building report.
+   */
+  public BuildingReport toBuildingReport() {
+    ElevatorReport[] reports = new ElevatorReport[numElevators];
+    for (int i = 0; i < numElevators; i++) {
+      reports[i] = toElevatorReport(i);
+    }
+
+    return new BuildingReport(numFloors, numElevators, elevatorCapacity, reports,
+        toRequests(upRequests, upRequestCount), toRequests(downRequests, downRequestCount),
+        systemStatus);
+  }
+
+  private List<Request> toRequests(int[] source, int count) {
+    int copied = Math.min(count, requestLimit);
+    List<Request> requests = new ArrayList<>(copied);
+    for (int i = 0; i < copied; i++) {
+      requests.add(new Request(source[2 * i], source[2 * i + 1]));
+    }
+    return requests;
+  }
+}
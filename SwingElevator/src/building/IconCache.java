@@ -0,0 +1,118 @@
+package building;
+
+import java.awt.Image;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import javax.swing.ImageIcon;
+
+/**
+ * A process-wide cache of the icons used by the Swing view. Icons are read from the
+ * classpath, so they also load from inside the packaged jar. Each icon is loaded and, if
+ * there is no image of the requested size, scaled once; every view after that shares the
+ * same ImageIcon.
+ */
+public final class IconCache {
+  /**
+   * The icons the view shows, loaded by preload. Other shipped icons load on first use.
+   */
+  static final String[] NAMES = {"up", "down"};
+
+  /**
+   * The icon sizes shipped with the program, largest first.
+   */
+  static final int[] SIZES = {40, 20};
+
+  private static final Map<String, CompletableFuture<ImageIcon>> ICONS =
+      new ConcurrentHashMap<>();
+
+  private IconCache() {
+  }
+
+  /**
+   * Start loading every icon the view shows on a background thread, so the first view
+   * does not wait for disk reads.
+   *
+   * @return a future that completes when every icon is loaded.
+   */
+  public static CompletableFuture<Void> preload() {
+    CompletableFuture<?>[] loads = new CompletableFuture<?>[NAMES.length * SIZES.length];
+    int i = 0;
+    for (String name : NAMES) {
+      for (int size : SIZES) {
+        loads[i++] = load(name, size, true);
+      }
+    }
+    return CompletableFuture.allOf(loads);
+  }
+
+  /**
+   * Get a square icon, loading it on first use. Sizes without an image of their own are
+   * scaled from the largest image.
+   *
+   * @param name the name of the icon, such as "up".
+   * @param size the width and height in pixels.
+   * @return the shared icon, or null if there is no image with that name.
+   * @throws IllegalArgumentException if size is not positive.
+   */
+  public static ImageIcon get(String name, int size) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Icon size must be positive.");
+    }
+    return load(name, size, false).join();
+  }
+
+  private static CompletableFuture<ImageIcon> load(String name, int size, boolean async) {
+    String key = name + "-" + size;
+    CompletableFuture<ImageIcon> icon = ICONS.get(key);
+    if (icon != null) {
+      return icon;
+    }
+
+    // reading may load a larger icon to scale, so it must not run inside a map update
+    CompletableFuture<ImageIcon> created = new CompletableFuture<>();
+    icon = ICONS.putIfAbsent(key, created);
+    if (icon != null) {
+      return icon;
+    }
+    if (async) {
+      ForkJoinPool.commonPool().execute(() -> complete(created, name, size));
+    } else {
+      complete(created, name, size);
+    }
+    return created;
+  }
+
+  private static void complete(CompletableFuture<ImageIcon> icon, String name, int size) {
+    try {
+      icon.complete(read(name, size));
+    } catch (RuntimeException e) {
+      icon.completeExceptionally(e);
+    }
+  }
+
+  private static ImageIcon read(String name, int size) {
+    URL exact = resource(name, size);
+    if (exact != null) {
+      return new ImageIcon(exact);
+    }
+
+    ImageIcon largest = null;
+    for (int available : SIZES) {
+      if (available != size && resource(name, available) != null) {
+        largest = get(name, available);
+        break;
+      }
+    }
+    if (largest == null) {
+      return null;
+    }
+    return new ImageIcon(largest.getImage().getScaledInstance(size, size, Image.SCALE_SMOOTH));
+  }
+
+  private static URL resource(String name, int size) {
+    return IconCache.class.getResource("/" + name + "-" + size + "x" + size + ".png");
+  }
+}
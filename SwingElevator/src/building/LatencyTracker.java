@@ -0,0 +1,226 @@
+package building;
+
+import building.metrics.LatencyMetrics;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * Follows every request handed to an elevator to the door openings at its start and end
+ * floors, and records the wait and ride times. The step a request was queued at comes
+ * from the request queue it was taken from. Pickups and drop-offs are also passed on to
+ * the building's lifecycle listener. Only the simulation thread uses it.
+ */
+final class LatencyTracker {
+  private static final RequestLifecycleListener NO_LISTENER = new RequestLifecycleListener() {
+  };
+
+  private final Riders[] riders;
+  private final LatencyMetrics metrics;
+  private RequestLifecycleListener listener = NO_LISTENER;
+
+  /**
+   * Creates a tracker for a building.
+   *
+   * @param numberOfElevators the number of elevators in the building.
+   */
+  LatencyTracker(int numberOfElevators) {
+    this.riders = new Riders[numberOfElevators];
+    for (int i = 0; i < numberOfElevators; i++) {
+      riders[i] = new Riders();
+    }
+    this.metrics = new LatencyMetrics();
+  }
+
+  private LatencyTracker(LatencyTracker other) {
+    this.riders = new Riders[other.riders.length];
+    for (int i = 0; i < riders.length; i++) {
+      riders[i] = new Riders(other.riders[i]);
+    }
+    this.metrics = other.metrics.copy();
+  }
+
+  /**
+   * Create an independent copy of the followed requests and recorded latencies. The
+   * copy has no listener.
+   *
+   * @return the copy.
+   */
+  LatencyTracker copy() {
+    return new LatencyTracker(this);
+  }
+
+  /**
+   * Start following requests that were handed to an elevator.
+   *
+   * @param elevator the index of the elevator.
+   * @param requests the requests handed to it.
+   * @param tick     the current step.
+   */
+  void assigned(int elevator, List<Request> requests, long tick) {
+    for (Request request : requests) {
+      riders[elevator].add(request.getStartFloor(), request.getEndFloor(),
+          RequestQueue.queuedTickOf(request, tick));
+    }
+  }
+
+  /**
+   * Record the pickups and drop-offs of an elevator that opened its door.
+   *
+   * @param elevator the index of the elevator.
+   * @param floor    the floor the door opened at.
+   * @param tick     the current step.
+   */
+  void doorOpened(int elevator, int floor, long tick) {
+    riders[elevator].doorOpened(elevator, floor, tick, metrics, listener);
+  }
+
+  /**
+   * Set the listener told about pickups and drop-offs.
+   *
+   * @param listener the listener, or null for none.
+   */
+  void setListener(RequestLifecycleListener listener) {
+    this.listener = listener == null ? NO_LISTENER : listener;
+  }
+
+  /**
+   * Forget every request that is still waiting or riding.
+   */
+  void clear() {
+    for (Riders elevatorRiders : riders) {
+      elevatorRiders.clear();
+    }
+  }
+
+  /**
+   * Write every followed request and the recorded latencies for a checkpoint.
+   *
+   * @param out the output to write to.
+   * @throws IOException if writing fails.
+   */
+  void writeTo(DataOutput out) throws IOException {
+    for (Riders elevatorRiders : riders) {
+      elevatorRiders.writeTo(out);
+    }
+    metrics.writeTo(out);
+  }
+
+  /**
+   * Replace the followed requests and recorded latencies with ones written by writeTo
+   * for a building with as many elevators.
+   *
+   * @param in the input to read from.
+   * @throws IOException if reading fails or the data is not valid.
+   */
+  void readFrom(DataInput in) throws IOException {
+    for (Riders elevatorRiders : riders) {
+      elevatorRiders.readFrom(in);
+    }
+    metrics.readFrom(in);
+  }
+
+  LatencyMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * The requests handed to one elevator, kept as parallel primitive arrays.
+   * A pickup tick of -1 means the rider is still waiting.
+   */
+  private static final class Riders {
+    private int[] startFloors;
+    private int[] endFloors;
+    private long[] queuedTicks;
+    private long[] pickupTicks;
+    private int size;
+
+    Riders() {
+      startFloors = new int[8];
+      endFloors = new int[8];
+      queuedTicks = new long[8];
+      pickupTicks = new long[8];
+    }
+
+    Riders(Riders other) {
+      startFloors = other.startFloors.clone();
+      endFloors = other.endFloors.clone();
+      queuedTicks = other.queuedTicks.clone();
+      pickupTicks = other.pickupTicks.clone();
+      size = other.size;
+    }
+
+    void add(int startFloor, int endFloor, long queuedTick) {
+      if (size == startFloors.length) {
+        int capacity = size << 1;
+        startFloors = Arrays.copyOf(startFloors, capacity);
+        endFloors = Arrays.copyOf(endFloors, capacity);
+        queuedTicks = Arrays.copyOf(queuedTicks, capacity);
+        pickupTicks = Arrays.copyOf(pickupTicks, capacity);
+      }
+      startFloors[size] = startFloor;
+      endFloors[size] = endFloor;
+      queuedTicks[size] = queuedTick;
+      pickupTicks[size] = -1;
+      size++;
+    }
+
+    void doorOpened(int elevator, int floor, long tick, LatencyMetrics metrics,
+                    RequestLifecycleListener listener) {
+      int i = 0;
+      while (i < size) {
+        if (pickupTicks[i] < 0) {
+          if (startFloors[i] == floor) {
+            pickupTicks[i] = tick;
+            metrics.getWaitTimes().record(tick - queuedTicks[i]);
+            listener.requestPickedUp(elevator, floor, endFloors[i], tick);
+          }
+          i++;
+        } else if (endFloors[i] == floor && pickupTicks[i] < tick) {
+          metrics.getRideTimes().record(tick - pickupTicks[i]);
+          listener.requestDelivered(elevator, startFloors[i], floor, tick);
+          removeAt(i);
+        } else {
+          i++;
+        }
+      }
+    }
+
+    private void removeAt(int index) {
+      size--;
+      startFloors[index] = startFloors[size];
+      endFloors[index] = endFloors[size];
+      queuedTicks[index] = queuedTicks[size];
+      pickupTicks[index] = pickupTicks[size];
+    }
+
+    void clear() {
+      size = 0;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+      out.writeInt(size);
+      for (int i = 0; i < size; i++) {
+        out.writeInt(startFloors[i]);
+        out.writeInt(endFloors[i]);
+        out.writeLong(queuedTicks[i]);
+        out.writeLong(pickupTicks[i]);
+      }
+    }
+
+    void readFrom(DataInput in) throws IOException {
+      int count = in.readInt();
+      if (count < 0) {
+        throw new IOException("An elevator can't have " + count + " riders.");
+      }
+      size = 0;
+      for (int i = 0; i < count; i++) {
+        add(in.readInt(), in.readInt(), in.readLong());
+        pickupTicks[i] = in.readLong();
+      }
+    }
+  }
+}
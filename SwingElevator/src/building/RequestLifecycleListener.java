@@ -0,0 +1,73 @@
+package building;
+
+/**
+ * This interface receives every change in the life of a request inside a building: it is
+ * queued, handed to an elevator, picked up and delivered. It is also told when the
+ * building itself has moved on. Floors are passed as primitives
+ * so a building can report its requests without allocating. Every method is called on
+ * the simulation thread with the step the change happened at, and does nothing unless
+ * overridden.
+ */
+public interface RequestLifecycleListener {
+  /**
+   * This method is used to report a request entering the up or down queue.
+   *
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   * @param tick       the current step.
+   */
+  default void requestQueued(int startFloor, int endFloor, long tick) {
+  }
+
+  /**
+   * This method is used to report a request taken from its queue by an elevator.
+   *
+   * @param elevator   the index of the elevator.
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   * @param tick       the current step.
+   */
+  default void requestAssigned(int elevator, int startFloor, int endFloor, long tick) {
+  }
+
+  /**
+   * This method is used to report a rider boarding at the start floor.
+   *
+   * @param elevator   the index of the elevator.
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   * @param tick       the current step.
+   */
+  default void requestPickedUp(int elevator, int startFloor, int endFloor, long tick) {
+  }
+
+  /**
+   * This method is used to report a rider leaving at the end floor.
+   *
+   * @param elevator   the index of the elevator.
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   * @param tick       the current step.
+   */
+  default void requestDelivered(int elevator, int startFloor, int endFloor, long tick) {
+  }
+
+  /**
+   * This method is used to report that every queued request was dropped because the
+   * system is stopping. Requests already handed to elevators are dropped as well.
+   *
+   * @param tick the current step.
+   */
+  default void requestsCleared(long tick) {
+  }
+
+  /**
+   * This method is used to report that the building finished a step, a run of skipped
+   * quiet steps, or starting or stopping the system. Elevators may have changed in any
+   * way a step can change them.
+   *
+   * @param tick the current step.
+   */
+  default void buildingUpdated(long tick) {
+  }
+}
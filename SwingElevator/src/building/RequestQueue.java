@@ -0,0 +1,383 @@
+package building;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * A first-in first-out queue of pending requests backed by a growable ring buffer.
+ * Adding to the tail and removing from the head are both O(1), so draining a large
+ * backlog one elevator load at a time stays linear in the number of requests drained.
+ * <p></p>
+ * Each entry is packed into a single long: the start floor and the end floor take 16
+ * bits each and the low 32 bits of the step the request was queued at take the rest.
+ * Request objects are only created when a request leaves the queue or is read through
+ * the view. Queued ticks are rebuilt relative to the newest entry, so they are exact for
+ * requests that waited less than 2^32 steps.
+ * <p></p>
+ * A fork shares the ring buffer with the queue it came from. Taking requests from the
+ * head only moves the head index, so either side copies the buffer only when it first
+ * writes an entry: when it adds a request, puts one back, or removes one from behind
+ * others that stay. The dispatch strategies in this project only write when they hand a
+ * request to an elevator, so a fork whose backlog no elevator can take yet keeps
+ * sharing it.
+ */
+public final class RequestQueue {
+  /**
+   * The number of floors a packed entry can address.
+   */
+  public static final int MAX_FLOORS = 1 << 16;
+
+  private static final int INITIAL_CAPACITY = 16;
+  private static final long FLOOR_MASK = 0xFFFFL;
+  private static final long TICK_MASK = 0xFFFFFFFFL;
+
+  private long[] elements;
+  private int head;
+  private int size;
+  private long latestTick;
+  private boolean shared;
+  private final List<Request> view = new ReadOnlyView();
+
+  /**
+   * Creates an empty request queue.
+   */
+  RequestQueue() {
+    this.elements = new long[INITIAL_CAPACITY];
+  }
+
+  private RequestQueue(long[] elements) {
+    this.elements = elements;
+  }
+
+  /**
+   * Create a queue with the same requests that shares this queue's buffer until either
+   * of them adds a request. The two queues can then be used on different threads.
+   *
+   * @return the fork.
+   */
+  RequestQueue fork() {
+    RequestQueue fork = new RequestQueue(elements);
+    fork.head = head;
+    fork.size = size;
+    fork.latestTick = latestTick;
+    fork.shared = true;
+    shared = true;
+    return fork;
+  }
+
+  /**
+   * Append a request to the tail of the queue, queued at the same step as the newest
+   * request.
+   *
+   * @param request the request to append.
+   */
+  void add(Request request) {
+    add(request, latestTick);
+  }
+
+  /**
+   * Append a request to the tail of the queue.
+   *
+   * @param request the request to append.
+   * @param tick    the step the request was queued at.
+   */
+  void add(Request request, long tick) {
+    if (size == elements.length) {
+      grow();
+    } else if (shared) {
+      unshare();
+    }
+    latestTick = Math.max(latestTick, tick);
+    elements[(head + size) & (elements.length - 1)] = pack(request, tick);
+    size++;
+  }
+
+  /**
+   * Put a request back at the head of the queue. A request that was taken from a queue
+   * keeps the step it was first queued at.
+   *
+   * @param request the request to put back.
+   */
+  public void addFirst(Request request) {
+    if (size == elements.length) {
+      grow();
+    } else if (shared) {
+      unshare();
+    }
+    head = (head - 1) & (elements.length - 1);
+    elements[head] = pack(request, queuedTickOf(request, latestTick));
+    size++;
+  }
+
+  /**
+   * Remove the request at the head of the queue.
+   *
+   * @return the oldest request, or null if the queue is empty.
+   */
+  public Request poll() {
+    if (size == 0) {
+      return null;
+    }
+    Request request = unpack(elements[head]);
+    head = (head + 1) & (elements.length - 1);
+    size--;
+    return request;
+  }
+
+  /**
+   * Remove up to max requests from the head of the queue.
+   *
+   * @param max the maximum number of requests to remove.
+   * @return the removed requests in queue order.
+   */
+  public List<Request> drain(int max) {
+    int count = Math.min(max, size);
+    List<Request> drained = new ArrayList<>(count);
+    int mask = elements.length - 1;
+
+    for (int i = 0; i < count; i++) {
+      drained.add(unpack(elements[head]));
+      head = (head + 1) & mask;
+    }
+    size -= count;
+
+    return drained;
+  }
+
+  /**
+   * Remove the requests at some positions and keep the rest in order. Entries in front
+   * of a removed one move back to close the gap, so removing near the head costs the
+   * distance from the head to the last removed position, and removing only from the head
+   * writes nothing.
+   *
+   * @param positions the positions to remove, in ascending order.
+   * @param count     the number of positions to use from the array.
+   * @return the removed requests in queue order.
+   * @throws IllegalArgumentException if the positions are not ascending or not in the
+   *         queue.
+   */
+  public List<Request> remove(int[] positions, int count) {
+    if (count == 0) {
+      return Collections.emptyList();
+    }
+    for (int i = 0; i < count; i++) {
+      if (positions[i] < (i == 0 ? 0 : positions[i - 1] + 1) || positions[i] >= size) {
+        throw new IllegalArgumentException("Positions must be ascending and in the queue.");
+      }
+    }
+
+    Request[] removed = new Request[count];
+    int mask = elements.length - 1;
+    int next = count - 1;
+    int write = positions[next];
+    for (int read = write; read >= 0; read--) {
+      long entry = elements[(head + read) & mask];
+      if (next >= 0 && positions[next] == read) {
+        removed[next--] = unpack(entry);
+        continue;
+      }
+      if (write != read) {
+        if (shared) {
+          unshare();
+        }
+        elements[(head + write) & mask] = entry;
+      }
+      write--;
+    }
+    head = (head + count) & mask;
+    size -= count;
+
+    return Arrays.asList(removed);
+  }
+
+  /**
+   * Remove every request from the queue.
+   */
+  void clear() {
+    head = 0;
+    size = 0;
+  }
+
+  /**
+   * Write the packed entries, oldest first, for a checkpoint.
+   *
+   * @param out the output to write to.
+   * @throws IOException if writing fails.
+   */
+  void writeTo(DataOutput out) throws IOException {
+    out.writeLong(latestTick);
+    out.writeInt(size);
+    int mask = elements.length - 1;
+    for (int i = 0; i < size; i++) {
+      out.writeLong(elements[(head + i) & mask]);
+    }
+  }
+
+  /**
+   * Replace the contents of the queue with entries written by writeTo.
+   *
+   * @param in     the input to read from.
+   * @param floors the number of floors every entry must be within.
+   * @throws IOException if reading fails or an entry is not a valid request.
+   */
+  void readFrom(DataInput in, int floors) throws IOException {
+    long tick = in.readLong();
+    int count = in.readInt();
+    if (count < 0) {
+      throw new IOException("Request queue can't have " + count + " entries.");
+    }
+    int capacity = INITIAL_CAPACITY;
+    while (capacity < count) {
+      capacity <<= 1;
+    }
+    long[] entries = new long[capacity];
+    for (int i = 0; i < count; i++) {
+      long packed = in.readLong();
+      long start = packed >>> 48;
+      long end = (packed >>> 32) & FLOOR_MASK;
+      if (start >= floors || end >= floors || start == end) {
+        throw new IOException("Request queue entry " + i + " is not a valid request.");
+      }
+      entries[i] = packed;
+    }
+    elements = entries;
+    head = 0;
+    size = count;
+    latestTick = tick;
+    shared = false;
+  }
+
+  /**
+   * Get the number of pending requests.
+   *
+   * @return the number of pending requests.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Check if there are no pending requests.
+   *
+   * @return true if the queue is empty, false otherwise.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Get the start floor of a pending request without creating a Request object.
+   *
+   * @param index the position in the queue.
+   * @return the start floor.
+   */
+  public int getStartFloor(int index) {
+    return (int) (elements[(head + index) & (elements.length - 1)] >>> 48);
+  }
+
+  /**
+   * Get the end floor of a pending request without creating a Request object.
+   *
+   * @param index the position in the queue.
+   * @return the end floor.
+   */
+  public int getEndFloor(int index) {
+    return (int) ((elements[(head + index) & (elements.length - 1)] >>> 32) & FLOOR_MASK);
+  }
+
+  /**
+   * Get a live, read-only list view of the pending requests in queue order. Every get
+   * creates a new Request object.
+   *
+   * @return a read-only view of the queue.
+   */
+  public List<Request> view() {
+    return view;
+  }
+
+  /**
+   * Get the step a request was queued at.
+   *
+   * @param request  the request.
+   * @param fallback the step to use for requests that did not come from a queue.
+   * @return the step the request was queued at.
+   */
+  static long queuedTickOf(Request request, long fallback) {
+    if (request instanceof QueuedRequest) {
+      return ((QueuedRequest) request).getQueuedTick();
+    }
+    return fallback;
+  }
+
+  private static long pack(Request request, long tick) {
+    return ((long) request.getStartFloor() << 48)
+        | ((request.getEndFloor() & FLOOR_MASK) << 32)
+        | (tick & TICK_MASK);
+  }
+
+  private Request unpack(long packed) {
+    // the entry holds the low bits of its tick, which is never newer than latestTick
+    long tick = latestTick - ((latestTick - packed) & TICK_MASK);
+    return new QueuedRequest((int) (packed >>> 48), (int) ((packed >>> 32) & FLOOR_MASK),
+        tick);
+  }
+
+  private void grow() {
+    long[] larger = new long[elements.length << 1];
+    int firstPart = elements.length - head;
+    System.arraycopy(elements, head, larger, 0, firstPart);
+    System.arraycopy(elements, 0, larger, firstPart, head);
+    elements = larger;
+    head = 0;
+    shared = false;
+  }
+
+  /**
+   * Take a private copy of a buffer shared with a fork before writing to it.
+   */
+  private void unshare() {
+    elements = elements.clone();
+    shared = false;
+  }
+
+  /**
+   * A request that remembers the step it was queued at.
+   */
+  static final class QueuedRequest extends Request {
+    private final long queuedTick;
+
+    QueuedRequest(int startFloor, int endFloor, long queuedTick) {
+      super(startFloor, endFloor);
+      this.queuedTick = queuedTick;
+    }
+
+    long getQueuedTick() {
+      return queuedTick;
+    }
+  }
+
+  /**
+   * Read-only view over the ring buffer. Indexing is O(1).
+   */
+  private final class ReadOnlyView extends AbstractList<Request> {
+    @Override
+    public Request get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      return unpack(elements[(head + index) & (elements.length - 1)]);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
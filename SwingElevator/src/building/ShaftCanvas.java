@@ -0,0 +1,208 @@
+package building;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.util.BitSet;
+import javax.swing.JComponent;
+
+/**
+ * Paints every elevator shaft of a building, with its car, door state and pending stops,
+ * from a BuildingSnapshot. A new frame only repaints the shafts whose car changed, and
+ * painting only touches the shafts inside the clip, so tall buildings with many cars stay
+ * cheap to draw. Swing's back buffer keeps the updates flicker-free.
+ */
+final class ShaftCanvas extends JComponent {
+  private static final long serialVersionUID = 1L;
+  private static final Color SHAFT = new Color(0xE6E6E6);
+  private static final Color FLOOR_LINE = new Color(0xC8C8C8);
+  private static final Color STOP = new Color(0xF9A825);
+  private static final Color MOVING = new Color(0x1565C0);
+  private static final Color WAITING = new Color(0x2E7D32);
+  private static final Color OUT_OF_SERVICE = Color.RED;
+  private static final Color DOOR = Color.WHITE;
+  private static final int GAP = 6;
+  private static final int MAX_SHAFT_WIDTH = 60;
+
+  private BuildingSnapshot frame;
+
+  /**
+   * Creates an empty canvas.
+   */
+  ShaftCanvas() {
+    setDoubleBuffered(true);
+    setOpaque(true);
+    setBackground(Color.WHITE);
+    setFont(new Font("SansSerif", Font.BOLD, 11));
+    setPreferredSize(new Dimension(600, 600));
+  }
+
+  /**
+   * Show a new frame. Only the shafts that look different from the previous frame are
+   * repainted.
+   *
+   * @param next a snapshot that is no longer written to, or null to clear the canvas
+   */
+  void setFrame(BuildingSnapshot next) {
+    BuildingSnapshot previous = this.frame;
+    this.frame = next;
+
+    if (previous == null || next == null
+        || previous.getNumElevators() != next.getNumElevators()
+        || previous.getNumFloors() != next.getNumFloors()) {
+      repaint();
+      return;
+    }
+
+    BitSet dirty = changedShafts(previous, next);
+    for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+      repaint(shaftBounds(i, next.getNumElevators()));
+    }
+  }
+
+  BuildingSnapshot getFrame() {
+    return frame;
+  }
+
+  /**
+   * Find the elevators that look different in two frames of the same building.
+   *
+   * @param previous the frame on screen
+   * @param next the new frame
+   * @return the indexes of the elevators to repaint
+   */
+  static BitSet changedShafts(BuildingSnapshot previous, BuildingSnapshot next) {
+    BitSet dirty = new BitSet(next.getNumElevators());
+    int words = next.getWordsPerElevator();
+    long[] before = previous.getStopWords();
+    long[] after = next.getStopWords();
+
+    for (int i = 0; i < next.getNumElevators(); i++) {
+      boolean changed = previous.getCurrentFloor(i) != next.getCurrentFloor(i)
+          || previous.isDoorClosed(i) != next.isDoorClosed(i)
+          || previous.getDirection(i) != next.getDirection(i)
+          || previous.isOutOfService(i) != next.isOutOfService(i)
+          || previous.isTakingRequests(i) != next.isTakingRequests(i);
+      for (int w = 0; !changed && w < words; w++) {
+        changed = before[i * words + w] != after[i * words + w];
+      }
+      if (changed) {
+        dirty.set(i);
+      }
+    }
+    return dirty;
+  }
+
+  /**
+   * Get the area of the canvas covered by one shaft.
+   *
+   * @param elevator the index of the elevator
+   * @param count the number of elevators
+   * @return the bounds of the shaft
+   */
+  Rectangle shaftBounds(int elevator, int count) {
+    int slot = Math.max(1, getWidth() / Math.max(1, count));
+    int width = Math.min(MAX_SHAFT_WIDTH, Math.max(1, slot - GAP));
+    int x = elevator * slot + (slot - width) / 2;
+    return new Rectangle(x, 0, width, getHeight());
+  }
+
+  @Override
+  protected void paintComponent(Graphics graphics) {
+    Graphics2D g = (Graphics2D) graphics.create();
+    try {
+      Rectangle clip = g.getClipBounds();
+      if (clip == null) {
+        clip = new Rectangle(0, 0, getWidth(), getHeight());
+      }
+      g.setColor(getBackground());
+      g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+      BuildingSnapshot current = frame;
+      if (current == null || current.getNumElevators() == 0) {
+        return;
+      }
+      g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+      int count = current.getNumElevators();
+      for (int i = 0; i < count; i++) {
+        Rectangle shaft = shaftBounds(i, count);
+        if (shaft.intersects(clip)) {
+          // keep labels of narrow cars from spilling into the next shaft
+          Graphics2D shaftGraphics = (Graphics2D) g.create();
+          shaftGraphics.clip(shaft);
+          paintShaft(shaftGraphics, current, i, shaft);
+          shaftGraphics.dispose();
+        }
+      }
+    } finally {
+      g.dispose();
+    }
+  }
+
+  private void paintShaft(Graphics2D g, BuildingSnapshot current, int elevator,
+                          Rectangle shaft) {
+    int floors = current.getNumFloors();
+    double floorHeight = (double) shaft.height / floors;
+
+    g.setColor(SHAFT);
+    g.fillRect(shaft.x, shaft.y, shaft.width, shaft.height);
+
+    // floor lines only when they are far enough apart to read
+    if (floorHeight >= 4) {
+      g.setColor(FLOOR_LINE);
+      for (int floor = 1; floor < floors; floor++) {
+        int y = floorTop(floor - 1, floorHeight, shaft.height);
+        g.drawLine(shaft.x, y, shaft.x + shaft.width - 1, y);
+      }
+    }
+
+    g.setColor(STOP);
+    int dot = Math.max(2, Math.min(8, (int) floorHeight - 2));
+    for (int floor = 0; floor < floors; floor++) {
+      if (current.hasStop(elevator, floor)) {
+        int y = floorTop(floor, floorHeight, shaft.height);
+        g.fillOval(shaft.x + 2, y + ((int) floorHeight - dot) / 2, dot, dot);
+      }
+    }
+
+    int floor = current.getCurrentFloor(elevator);
+    int top = floorTop(floor, floorHeight, shaft.height);
+    int height = Math.max(2, (int) Math.ceil(floorHeight));
+    int inset = Math.min(dot + 4, shaft.width / 4);
+    Rectangle car = new Rectangle(shaft.x + inset, top, shaft.width - inset, height);
+
+    if (current.isOutOfService(elevator)) {
+      g.setColor(OUT_OF_SERVICE);
+    } else if (current.isTakingRequests(elevator)) {
+      g.setColor(WAITING);
+    } else {
+      g.setColor(MOVING);
+    }
+    g.fillRect(car.x, car.y, car.width, car.height);
+
+    if (!current.isDoorClosed(elevator)) {
+      g.setColor(DOOR);
+      int door = Math.max(2, car.width / 3);
+      g.fillRect(car.x + (car.width - door) / 2, car.y + 1, door, Math.max(1, car.height - 2));
+    }
+
+    if (height >= 12) {
+      g.setColor(Color.WHITE);
+      g.setFont(getFont());
+      g.drawString(floor + " " + current.getDirection(elevator), car.x + 2,
+          car.y + car.height - 2);
+    }
+  }
+
+  /**
+   * Get the y coordinate of the top of a floor, with floor 0 at the bottom.
+   */
+  private static int floorTop(int floor, double floorHeight, int height) {
+    return (int) Math.round(height - (floor + 1) * floorHeight);
+  }
+}
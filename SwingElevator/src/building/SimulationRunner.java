@@ -0,0 +1,201 @@
+package building;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ObjLongConsumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * Steps a building on a dedicated worker thread at a fixed rate and publishes what it
+ * looks like to the Swing event dispatch thread.
+ * Every change to the model made through the runner holds the model's monitor, so the
+ * worker and the event dispatch thread never touch the building at the same time.
+ * Each published frame is a freshly captured BuildingSnapshot that is never written
+ * again. At most one frame is waiting on the event dispatch thread at any time and at
+ * most FRAME_RATE frames are published per second; frames in between are skipped.
+ */
+final class SimulationRunner {
+  /**
+   * The highest supported number of steps per second.
+   */
+  static final int MAX_RATE = 100_000;
+
+  /**
+   * The number of frames per second published while running.
+   */
+  private static final int FRAME_RATE = 30;
+  private static final long FRAME_NANOS = TimeUnit.SECONDS.toNanos(1) / FRAME_RATE;
+
+  /**
+   * The longest stretch of missed steps made up for at once.
+   */
+  private static final long MAX_CATCH_UP_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final BuildingInterface model;
+  private final ObjLongConsumer<BuildingSnapshot> frameSink;
+  private final int requestLimit;
+  private final AtomicBoolean framePending = new AtomicBoolean();
+  private final AtomicBoolean refreshMissed = new AtomicBoolean();
+  private volatile int stepsPerSecond;
+  private volatile boolean running;
+  private Thread worker;
+  private long stepBase;
+  private volatile long lastFrame;
+
+  /**
+   * Creates a paused runner.
+   *
+   * @param model          the building to step.
+   * @param frameSink      receives every published frame and the number of steps since
+   *                       the last stop, on the event dispatch thread.
+   * @param requestLimit   the number of pending requests per direction copied into a
+   *                       frame.
+   * @param stepsPerSecond the initial step rate.
+   * @throws IllegalArgumentException if the step rate is out of range.
+   */
+  SimulationRunner(BuildingInterface model, ObjLongConsumer<BuildingSnapshot> frameSink,
+                   int requestLimit, int stepsPerSecond) {
+    this.model = model;
+    this.frameSink = frameSink;
+    this.requestLimit = requestLimit;
+    setStepsPerSecond(stepsPerSecond);
+  }
+
+  /**
+   * Change the step rate. A running worker picks it up with its next batch.
+   *
+   * @param stepsPerSecond the number of steps per second.
+   * @throws IllegalArgumentException if the rate is not between 1 and MAX_RATE.
+   */
+  void setStepsPerSecond(int stepsPerSecond) {
+    if (stepsPerSecond < 1 || stepsPerSecond > MAX_RATE) {
+      throw new IllegalArgumentException("Steps per second must be between 1 and "
+          + MAX_RATE + ".");
+    }
+    this.stepsPerSecond = stepsPerSecond;
+  }
+
+  /**
+   * Start stepping on the worker thread. Does nothing if it is already running.
+   */
+  synchronized void resume() {
+    if (running) {
+      return;
+    }
+    running = true;
+    worker = new Thread(this::runLoop, "elevator-simulation");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /**
+   * Stop stepping, wait for the worker thread to finish its batch and publish the state
+   * it left the building in.
+   */
+  synchronized void pause() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(worker);
+    try {
+      worker.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    worker = null;
+    publish(true);
+  }
+
+  boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Take a single step and publish the result.
+   */
+  void step() {
+    synchronized (model) {
+      model.stepElevatorSystem();
+    }
+    publish(true);
+  }
+
+  /**
+   * Stop the elevator system, restart the step count and publish the result. A running
+   * worker keeps stepping, which brings the elevators down to the ground floor.
+   */
+  void stop() {
+    synchronized (model) {
+      model.stopElevatorSystem();
+      stepBase = model.getStepCount();
+    }
+    publish(true);
+  }
+
+  /**
+   * Publish a frame as soon as the event dispatch thread has shown the previous one.
+   */
+  void refresh() {
+    publish(true);
+  }
+
+  private void runLoop() {
+    long next = System.nanoTime();
+
+    while (running) {
+      long period = TimeUnit.SECONDS.toNanos(1) / stepsPerSecond;
+      long now = System.nanoTime();
+      if (now < next) {
+        LockSupport.parkNanos(next - now);
+        continue;
+      }
+
+      // give up on steps missed for longer than the catch-up window
+      if (now - next > MAX_CATCH_UP_NANOS) {
+        next = now - MAX_CATCH_UP_NANOS;
+      }
+      long due = (now - next) / period + 1;
+      synchronized (model) {
+        for (long i = 0; i < due; i++) {
+          model.stepElevatorSystem();
+        }
+      }
+      next += due * period;
+
+      publish(false);
+    }
+  }
+
+  private void publish(boolean force) {
+    long now = System.nanoTime();
+    if (!force && now - lastFrame < FRAME_NANOS) {
+      return;
+    }
+    // the event dispatch thread has not shown the last frame yet, skip this one
+    if (!framePending.compareAndSet(false, true)) {
+      if (force) {
+        refreshMissed.set(true);
+      }
+      return;
+    }
+
+    BuildingSnapshot frame = new BuildingSnapshot(requestLimit);
+    long steps;
+    synchronized (model) {
+      model.captureSnapshot(frame);
+      steps = model.getStepCount() - stepBase;
+    }
+    lastFrame = now;
+
+    SwingUtilities.invokeLater(() -> {
+      framePending.set(false);
+      frameSink.accept(frame, steps);
+      // a forced frame lost to the one just shown is published now
+      if (refreshMissed.getAndSet(false)) {
+        publish(true);
+      }
+    });
+  }
+}
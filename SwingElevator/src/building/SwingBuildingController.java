@@ -1,11 +1,10 @@
 package building;
 
 import building.enums.ElevatorSystemStatus;
-import elevator.Elevator;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.List;
 import javax.swing.JButton;
+import javax.swing.JSpinner;
 import scanerzus.Request;
 
 /**
@@ -13,12 +12,16 @@ import scanerzus.Request;
 **/
 public class SwingBuildingController implements BuildingControllerInterface {
   private final SwingBuildingViewInterface view;
-  private final BuildingInterface model;
-  private final JButton[][] requestBtn;
+  private BuildingInterface model;
+  private JButton[][] requestBtn;
   private final JButton step;
+  private final JButton run;
+  private final JSpinner rate;
   private final JButton restart;
   private final JButton stop;
-  private final int numFloors;
+  private int numFloors;
+  private SimulationRunner runner;
+  private final RequestListener requestListener = new RequestListener();
 
   /**
    * Initializes a controller for a building elevator system.
@@ -30,30 +33,47 @@ public class SwingBuildingController implements BuildingControllerInterface {
   public SwingBuildingController(SwingBuildingViewInterface view, BuildingInterface model) {
     this.view = view;
     this.model = model;
-    this.requestBtn = view.getRequests();
     this.step = view.getStep();
+    this.run = view.getRun();
+    this.rate = view.getRate();
     this.restart = view.getRestart();
     this.stop = view.getStop();
-    this.numFloors = model.getNumberOfFloors();
   }
 
   /**
    * Start the whole elevator system in the building.
   **/
   public void start() {
-    model.startElevatorSystem();
-    RequestListener requestListener = new RequestListener();
+    // the control buttons outlive restarts, so they are wired up once
     StatusListener statusListener = new StatusListener();
-
     step.addActionListener(statusListener);
+    run.addActionListener(statusListener);
+    rate.addChangeListener(e -> runner.setStepsPerSecond((Integer) rate.getValue()));
     restart.addActionListener(statusListener);
     stop.addActionListener(statusListener);
 
+    bind(model);
+  }
+
+  /**
+   * Make a model the one shown and driven by this controller, and start it.
+   *
+   * @param newModel the model to bind
+  **/
+  private void bind(BuildingInterface newModel) {
+    model = newModel;
+    numFloors = model.getNumberOfFloors();
+    requestBtn = view.getRequests();
+    runner = new SimulationRunner(model, view::showFrame,
+        SwingBuildingView.BANNER_LIMIT, (Integer) rate.getValue());
+
+    model.startElevatorSystem();
     for (int i = 0; i < numFloors; i++) {
       for (int j = 0; j < 2; j++) {
         requestBtn[i][j].addActionListener(requestListener);
       }
     }
+    runner.refresh();
   }
 
   /**
@@ -68,7 +88,8 @@ public class SwingBuildingController implements BuildingControllerInterface {
               && model.getStatus() == ElevatorSystemStatus.running) {
             int dest = view.createPopUp(requestBtn[i][j]);
             model.addRequest(new Request(i, dest));
-            view.displayRequest(model.getUpRequest(), model.getDownRequest());
+            // the model may be stepping on the runner's thread, so read it through a frame
+            runner.refresh();
           }
         }
       }
@@ -82,14 +103,19 @@ public class SwingBuildingController implements BuildingControllerInterface {
     @Override
     public void actionPerformed(ActionEvent e) {
       if (e.getSource() == step) {
-        model.stepElevatorSystem();
-        update();
-        view.updateView();
+        runner.step();
+      } else if (e.getSource() == run) {
+        if (runner.isRunning()) {
+          runner.pause();
+        } else {
+          runner.resume();
+        }
+        view.setRunning(runner.isRunning());
       } else if (e.getSource() == restart) {
         int[] newArgs = view.createRestartWin();
         restartControl(newArgs[0], newArgs[1], newArgs[2]);
       } else if (e.getSource() == stop) {
-        model.stopElevatorSystem();
+        runner.stop();
         view.clearView();
       }
     }
@@ -97,30 +123,28 @@ public class SwingBuildingController implements BuildingControllerInterface {
 
 
   /**
-   * Update the view of the elevator system.
-  **/
-  private void update() {
-    JButton[] elevatorListView = view.getElevators();
-    List<Elevator> elevatorList = model.getElevators();
-
-    for (int i = 0; i < elevatorList.size(); i++) {
-      int currentFloor = elevatorList.get(i).getCurrentFloor();
-      elevatorListView[i].setText("" + currentFloor);
-    }
-  }
-
-  /**
-   * Restart the elevator system with new building parameters.
+   * Restart the elevator system with new building parameters. The window is reused:
+   * the old simulation is stopped, the view rebuilds its floor buttons in place and the
+   * new model is bound to this controller, so nothing of the old building stays
+   * reachable.
    *
    * @param newFloor number of floors in the new building
    * @param newElevator number of elevators in the new building
    * @param newCapacity capacity of the elevators in the new building
+   * @throws IllegalArgumentException if the parameters are invalid, in which case the
+   *         current building keeps running
    * */
-  private void restartControl(int newFloor, int newElevator, int newCapacity) {
+  void restartControl(int newFloor, int newElevator, int newCapacity) {
     BuildingInterface newModel = new Building(newFloor, newElevator, newCapacity);
-    SwingBuildingViewInterface newView = new SwingBuildingView(newFloor, newElevator);
-    BuildingControllerInterface newController = new SwingBuildingController(newView, newModel);
-    newController.start();
+
+    runner.pause();
+    view.setRunning(false);
+    view.rebuild(newFloor, newElevator);
+    bind(newModel);
+  }
+
+  BuildingInterface getModel() {
+    return model;
   }
 
 }
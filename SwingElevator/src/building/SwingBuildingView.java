@@ -4,7 +4,6 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.GridLayout;
-import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.swing.BorderFactory;
 import javax.swing.ImageIcon;
@@ -14,27 +13,47 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JSpinner;
 import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingConstants;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
-import scanerzus.Request;
 
 /**
  * View component of an elevator building system built with Swing library.
 **/
 public class SwingBuildingView implements SwingBuildingViewInterface {
+  /**
+   * The number of times per second the request banner may be refreshed.
+   */
+  private static final int REFRESH_RATE = 30;
+
+  /**
+   * The number of requests per direction spelled out in the banner.
+   */
+  static final int BANNER_LIMIT = 32;
+
   private final JFrame frame;
-  private final JButton[][] requestArr;
-  private final JButton[] elevators;
-  private final int numFloor;
-  private final int numElevator;
+  private JButton[][] requestArr;
+  private JPanel requestPanel;
+  private int numFloor;
   private int stepCnt = 0;
   private JButton step;
+  private JButton run;
+  private JSpinner rate;
   private JButton stop;
   private JButton restart;
   private JLabel stepCountLabel;
   private JPanel elevatorPanel;
+  private ShaftCanvas shafts;
+  private JLabel upLabel;
+  private JLabel downLabel;
+  private BuildingSnapshot latestFrame;
+  private long latestSteps;
+  private boolean frameDirty;
+  private final Timer refreshTimer;
 
   /**
    * Initializes the main component of an elevator system.
@@ -49,14 +68,16 @@ public class SwingBuildingView implements SwingBuildingViewInterface {
     frame.setBackground(Color.decode("#4A171E"));
 
     this.numFloor = numFloor;
-    this.numElevator = numElevator;
     requestArr = new JButton[numFloor][2];
-    elevators = new JButton[numElevator];
 
     addRequestBtn();
     addControl();
     addElevators();
 
+    // coalesce request updates, however many arrive, into one banner refresh per frame
+    refreshTimer = new Timer(1000 / REFRESH_RATE, e -> refresh());
+    refreshTimer.start();
+
     frame.setVisible(true);
   }
 
@@ -66,16 +87,11 @@ public class SwingBuildingView implements SwingBuildingViewInterface {
   private void addRequestBtn() {
     JPanel requests = new JPanel();
     requests.setLayout(new GridLayout(numFloor, 2));
+    requestPanel = requests;
 
-    ImageIcon up;
-    ImageIcon down;
-    if (numFloor < 20) {
-      up = new ImageIcon("src/main/resources/up-40x40.png");
-      down = new ImageIcon("src/main/resources/down-40x40.png");
-    } else {
-      up = new ImageIcon("src/main/resources/up-20x20.png");
-      down = new ImageIcon("src/main/resources/down-20x20.png");
-    }
+    int iconSize = numFloor < 20 ? 40 : 20;
+    ImageIcon up = IconCache.get("up", iconSize);
+    ImageIcon down = IconCache.get("down", iconSize);
 
     for (int i = numFloor - 1; i >= 0; i--) {
       JButton upButton = new JButton(String.valueOf(i), up);
@@ -94,27 +110,22 @@ public class SwingBuildingView implements SwingBuildingViewInterface {
   }
 
   /**
-    * Add elevator representation to the building.
+    * Add elevator representation to the building: one canvas that paints every shaft.
    **/
   private void addElevators() {
     elevatorPanel = new JPanel(new BorderLayout());
-    JPanel elevatorWrapper = new JPanel();
-    ImageIcon eleIcon;
-
-    if (numFloor < 20) {
-      eleIcon = new ImageIcon("src/main/resources/elevator-40x40.png");
-    } else {
-      eleIcon = new ImageIcon("src/main/resources/elevator-20x20.png");
-    }
+    shafts = new ShaftCanvas();
 
-    for (int i = 0; i < numElevator; i++) {
-      elevators[i] = new JButton();
-      elevators[i].setIcon(eleIcon);
-      elevators[i].setText("0");
-      elevatorWrapper.add(elevators[i]);
-    }
+    JPanel displayRequest = new JPanel(new GridLayout(2, 1));
+    displayRequest.setBorder(BorderFactory.createEmptyBorder(20, 20, 10, 10));
+    displayRequest.setBackground(Color.cyan);
+    upLabel = new JLabel();
+    downLabel = new JLabel();
+    displayRequest.add(downLabel);
+    displayRequest.add(upLabel);
 
-    elevatorPanel.add(elevatorWrapper, BorderLayout.SOUTH);
+    elevatorPanel.add(displayRequest, BorderLayout.NORTH);
+    elevatorPanel.add(shafts, BorderLayout.CENTER);
     frame.add(elevatorPanel, BorderLayout.CENTER);
   }
 
@@ -134,22 +145,26 @@ public class SwingBuildingView implements SwingBuildingViewInterface {
     countTitle.setFont(new Font("Serif", Font.BOLD, 18));
     stepCountLabel.setFont(new Font("Serif", Font.BOLD, 50));
 
-    JPanel control = new JPanel(new GridLayout(5, 1));
+    JPanel control = new JPanel(new GridLayout(7, 1));
     control.add(countTitle);
     control.add(stepCountLabel);
 
-    JButton[] buttons = new JButton[3];
+    JButton[] buttons = new JButton[4];
     buttons[0] = new JButton("STEP");
     buttons[0].setBackground(Color.blue);
     step = buttons[0];
 
-    buttons[1] = new JButton("RESTART");
-    buttons[1].setBackground(Color.ORANGE);
-    restart = buttons[1];
+    buttons[1] = new JButton("RUN");
+    buttons[1].setBackground(Color.decode("#2E7D32"));
+    run = buttons[1];
+
+    buttons[2] = new JButton("RESTART");
+    buttons[2].setBackground(Color.ORANGE);
+    restart = buttons[2];
 
-    buttons[2] = new JButton("STOP");
-    buttons[2].setBackground(Color.RED);
-    stop = buttons[2];
+    buttons[3] = new JButton("STOP");
+    buttons[3].setBackground(Color.RED);
+    stop = buttons[3];
 
     for (JButton btn : buttons) {
       btn.setForeground(Color.white);
@@ -157,21 +172,41 @@ public class SwingBuildingView implements SwingBuildingViewInterface {
       control.add(btn);
     }
 
+    JPanel ratePanel = new JPanel(new GridLayout(2, 1));
+    ratePanel.add(new JLabel("Steps per Second", SwingConstants.CENTER));
+    rate = new JSpinner(new SpinnerNumberModel(10, 1, SimulationRunner.MAX_RATE, 10));
+    ratePanel.add(rate);
+    control.add(ratePanel);
+
     frame.add(control, BorderLayout.EAST);
   }
 
   /**
-    * Reset building step count and elevator step count.
+    * Reset building step count. Elevators taken out of service are painted red by the
+    * next frame.
    **/
   public void clearView() {
     stepCnt = 0;
     stepCountLabel.setText(String.valueOf(stepCnt));
+  }
 
-    for (int i = 0; i < numElevator; i++) {
-      elevators[i].setText(String.valueOf(stepCnt));
-      elevators[i].setBackground(Color.RED);
-      elevators[i].setOpaque(true);
-    }
+  @Override
+  public void rebuild(int numFloor, int numElevator) {
+    this.numFloor = numFloor;
+
+    frame.remove(requestPanel);
+    requestArr = new JButton[numFloor][2];
+    addRequestBtn();
+
+    shafts.setFrame(null);
+    latestFrame = null;
+    frameDirty = false;
+    upLabel.setText("");
+    downLabel.setText("");
+    clearView();
+
+    frame.revalidate();
+    frame.repaint();
   }
 
   /**
@@ -265,45 +300,67 @@ public class SwingBuildingView implements SwingBuildingViewInterface {
   }
 
   @Override
-  public void updateView() {
-    stepCnt++;
-    stepCountLabel.setText(String.valueOf(stepCnt));
+  public void showFrame(BuildingSnapshot frame, long steps) {
+    // only remember the latest frame, the refresh timer draws it
+    latestFrame = frame;
+    latestSteps = steps;
+    frameDirty = true;
   }
 
   @Override
-  public void displayRequest(List<Request> up, List<Request> down) {
-    StringBuilder upText = new StringBuilder();
-    StringBuilder downText = new StringBuilder();
-
-    if (!down.isEmpty()) {
-      downText.append("Down: ");
-      for (Request request : down) {
-        downText.append(request.getStartFloor()).append(" -> ")
-            .append(request.getEndFloor()).append("; ");
-      }
-    }
+  public void setRunning(boolean running) {
+    run.setText(running ? "PAUSE" : "RUN");
+  }
 
-    if (!up.isEmpty()) {
-      upText.append("Up: ");
-      for (Request request : up) {
-        upText.append(request.getStartFloor()).append(" -> ")
-            .append(request.getEndFloor()).append("; ");
-      }
+  /**
+   * Draw the latest frame and its request banner if a new frame arrived since the last
+   * refresh.
+   */
+  private void refresh() {
+    if (frameDirty) {
+      frameDirty = false;
+      stepCnt = (int) latestSteps;
+      stepCountLabel.setText(String.valueOf(latestSteps));
+      shafts.setFrame(latestFrame);
+      downLabel.setText(describeRequests("Down: ", latestFrame, false));
+      upLabel.setText(describeRequests("Up: ", latestFrame, true));
     }
+  }
 
-    JPanel displayRequest = new JPanel(new GridLayout(2, 1));
-    displayRequest.setBorder(BorderFactory.createEmptyBorder(20, 20, 10, 10));
-    displayRequest.setBackground(Color.cyan);
-    JLabel upLabel = new JLabel();
-    JLabel downLabel = new JLabel();
+  /**
+   * Describe the pending requests of one direction in a frame in one line. Long lists
+   * are cut after BANNER_LIMIT entries, or the frame's request limit if that is lower.
+   *
+   * @param title the text in front of the requests
+   * @param frame the frame holding the requests
+   * @param up true for the up requests, false for the down requests
+   * @return the banner text, empty if there are no requests
+   **/
+  static String describeRequests(String title, BuildingSnapshot frame, boolean up) {
+    int count = up ? frame.getUpRequestCount() : frame.getDownRequestCount();
+    if (count == 0) {
+      return "";
+    }
 
-    downLabel.setText(downText.toString());
-    upLabel.setText(upText.toString());
-    displayRequest.add(downLabel);
-    displayRequest.add(upLabel);
+    StringBuilder text = new StringBuilder(title);
+    int shown = Math.min(count, Math.min(BANNER_LIMIT, frame.getRequestLimit()));
+    for (int i = 0; i < shown; i++) {
+      if (up) {
+        text.append(frame.getUpRequestStart(i)).append(" -> ")
+            .append(frame.getUpRequestEnd(i)).append("; ");
+      } else {
+        text.append(frame.getDownRequestStart(i)).append(" -> ")
+            .append(frame.getDownRequestEnd(i)).append("; ");
+      }
+    }
+    appendRemainder(text, count, shown);
+    return text.toString();
+  }
 
-    elevatorPanel.add(displayRequest, BorderLayout.NORTH);
-    frame.add(elevatorPanel, BorderLayout.CENTER);
+  private static void appendRemainder(StringBuilder text, int count, int shown) {
+    if (count > shown) {
+      text.append("... (").append(count - shown).append(" more)");
+    }
   }
 
   public JButton[][] getRequests() {
@@ -314,6 +371,14 @@ public class SwingBuildingView implements SwingBuildingViewInterface {
     return step;
   }
 
+  public JButton getRun() {
+    return run;
+  }
+
+  public JSpinner getRate() {
+    return rate;
+  }
+
   public JButton getStop() {
     return stop;
   }
@@ -321,8 +386,4 @@ public class SwingBuildingView implements SwingBuildingViewInterface {
   public JButton getRestart() {
     return restart;
   }
-
-  public JButton[] getElevators() {
-    return elevators;
-  }
 }
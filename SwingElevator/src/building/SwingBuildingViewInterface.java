@@ -1,19 +1,12 @@
 package building;
 
-import java.util.List;
 import javax.swing.JButton;
-import scanerzus.Request;
+import javax.swing.JSpinner;
 
 /**
  * An interface that represents GUI version of building view.
 **/
 public interface SwingBuildingViewInterface {
-  /**
-   * Update elevator status and step count on step command.
-   *
-   **/
-  void updateView();
-
   /**
    * Create a popup window asking for user input when restart button is clicked.
    *
@@ -31,17 +24,34 @@ public interface SwingBuildingViewInterface {
   int createPopUp(JButton btn);
 
   /**
-   * Reset building step count and elevator step count.
+   * Reset building step count.
    **/
   void clearView();
 
   /**
-   * Display the request on the view.
+   * Rebuild the parts of the view that depend on the building size, in the same window.
+   * The old request buttons are discarded together with their listeners.
+   *
+   * @param numFloor number of floors in the new building
+   * @param numElevator number of elevators in the new building
+   **/
+  void rebuild(int numFloor, int numElevator);
+
+  /**
+   * Show a frame published by the simulation. Frames may arrive faster than the screen
+   * refreshes; only the latest one is drawn.
+   *
+   * @param frame a snapshot of the building that is no longer written to
+   * @param steps the step count to display
+   **/
+  void showFrame(BuildingSnapshot frame, long steps);
+
+  /**
+   * Show whether the simulation is running on its own.
    *
-   * @param up a list of up requests
-   * @param down a list of down requests
+   * @param running true if the simulation is running, false if it is paused
    **/
-  void displayRequest(List<Request> up, List<Request> down);
+  void setRunning(boolean running);
 
   /**
    * Get all buttons used to take user requests.
@@ -57,6 +67,20 @@ public interface SwingBuildingViewInterface {
    **/
   JButton getStep();
 
+  /**
+   * Get run/pause button.
+   *
+   * @return run button
+   **/
+  JButton getRun();
+
+  /**
+   * Get the steps per second selector used while running.
+   *
+   * @return step rate spinner
+   **/
+  JSpinner getRate();
+
   /**
    * Get stop button.
    *
@@ -70,11 +94,4 @@ public interface SwingBuildingViewInterface {
    * @return restart button
    **/
   JButton getRestart();
-
-  /**
-   * Get representation of all elevators.
-   *
-   * @return all elevators in the form of an array
-  **/
-  JButton[] getElevators();
 }
@@ -0,0 +1,55 @@
+package building.dispatch;
+
+import building.RequestQueue;
+import elevator.Elevator;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * This interface is the view of a building a dispatch strategy works with.
+ */
+public interface DispatchContext {
+  /**
+   * Get the number of floors in the building.
+   *
+   * @return the number of floors.
+   */
+  int getNumberOfFloors();
+
+  /**
+   * Get the capacity of the elevators in the building.
+   *
+   * @return the elevator capacity.
+   */
+  int getElevatorCapacity();
+
+  /**
+   * Get the elevators of the building, in id order.
+   *
+   * @return the elevators.
+   */
+  List<Elevator> getElevators();
+
+  /**
+   * Get the pending up requests, oldest first.
+   *
+   * @return the up request queue.
+   */
+  RequestQueue getUpRequests();
+
+  /**
+   * Get the pending down requests, oldest first.
+   *
+   * @return the down request queue.
+   */
+  RequestQueue getDownRequests();
+
+  /**
+   * Hand requests that were removed from a queue to an elevator.
+   *
+   * @param elevator the elevator that will serve the requests.
+   * @param requests the requests to serve.
+   * @throws IllegalStateException if the elevator can't take the requests right now.
+   */
+  void assign(Elevator elevator, List<Request> requests);
+}
@@ -0,0 +1,17 @@
+package building.dispatch;
+
+/**
+ * This interface represents a policy for handing pending requests to elevators.
+ * A building calls dispatch once per step, before stepping the elevators, whenever
+ * there are pending requests. Strategies are expected to be stateless so one instance
+ * can be shared between buildings.
+ */
+public interface DispatchStrategy {
+  /**
+   * Assign pending requests to elevators. Requests that are not assigned must be left in
+   * their queue, in their original order.
+   *
+   * @param context the building to dispatch for.
+   */
+  void dispatch(DispatchContext context);
+}
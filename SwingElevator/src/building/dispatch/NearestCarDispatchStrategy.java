@@ -0,0 +1,161 @@
+package building.dispatch;
+
+import building.RequestQueue;
+import elevator.Elevator;
+import java.util.ArrayList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * A cost-based dispatch policy that gives each request to the suitable elevator that can
+ * reach its start floor soonest. Suitable elevators are the ones waiting at the terminal
+ * floor the request leaves from, and moving elevators that will pass the start floor in
+ * the direction of the request and still have room in their current run.
+ * The cost of a moving elevator is the number of floors to the start floor plus a door
+ * penalty for every stop it already has. Ties go to the elevator with the lowest index so
+ * the result is deterministic.
+ */
+public class NearestCarDispatchStrategy implements DispatchStrategy {
+  /**
+   * The default number of requests per queue looked at in one dispatch.
+   */
+  public static final int DEFAULT_SCAN_LIMIT = 256;
+
+  /**
+   * The extra cost of every stop an elevator already has, roughly its door time.
+   */
+  private static final int STOP_PENALTY = 3;
+
+  private final int scanLimit;
+
+  /**
+   * Creates a strategy that looks at up to DEFAULT_SCAN_LIMIT requests per queue.
+   */
+  public NearestCarDispatchStrategy() {
+    this(DEFAULT_SCAN_LIMIT);
+  }
+
+  /**
+   * Creates a strategy that looks at a limited number of the oldest requests per queue.
+   *
+   * @param scanLimit the number of requests per queue considered in one dispatch.
+   * @throws IllegalArgumentException if scanLimit is not positive.
+   */
+  public NearestCarDispatchStrategy(int scanLimit) {
+    if (scanLimit <= 0) {
+      throw new IllegalArgumentException("Scan limit must be positive.");
+    }
+    this.scanLimit = scanLimit;
+  }
+
+  @Override
+  public void dispatch(DispatchContext context) {
+    List<Elevator> elevators = context.getElevators();
+    int[] room = new int[elevators.size()];
+    for (int i = 0; i < room.length; i++) {
+      room[i] = elevators.get(i).getRemainingCapacity();
+    }
+
+    int topFloor = context.getNumberOfFloors() - 1;
+    List<List<Request>> batches = assignFrom(context.getUpRequests(), elevators, room, null,
+        0);
+    batches = assignFrom(context.getDownRequests(), elevators, room, batches, topFloor);
+    if (batches == null) {
+      return;
+    }
+
+    for (int i = 0; i < elevators.size(); i++) {
+      if (batches.get(i) != null) {
+        context.assign(elevators.get(i), batches.get(i));
+      }
+    }
+  }
+
+  /**
+   * Score the oldest requests of a queue where they are and take out only the ones an
+   * elevator gets, so a step where nothing can be assigned neither allocates nor writes
+   * to the queue.
+   *
+   * @return the batches, created on the first assignment if batches was null.
+   */
+  private List<List<Request>> assignFrom(RequestQueue queue, List<Elevator> elevators,
+                                         int[] room, List<List<Request>> batches,
+                                         int startTerminal) {
+    int scanned = Math.min(queue.size(), scanLimit);
+    int[] positions = null;
+    int[] owners = null;
+    int taken = 0;
+
+    for (int n = 0; n < scanned; n++) {
+      int best = findBest(queue.getStartFloor(n), queue.getEndFloor(n), elevators, room,
+          startTerminal);
+      if (best < 0) {
+        continue;
+      }
+
+      if (positions == null) {
+        positions = new int[scanned - n];
+        owners = new int[scanned - n];
+      }
+      positions[taken] = n;
+      owners[taken] = best;
+      taken++;
+      room[best]--;
+    }
+    if (taken == 0) {
+      return batches;
+    }
+
+    List<List<Request>> result = batches;
+    if (result == null) {
+      result = new ArrayList<>(elevators.size());
+      for (int i = 0; i < elevators.size(); i++) {
+        result.add(null);
+      }
+    }
+    List<Request> removed = queue.remove(positions, taken);
+    for (int i = 0; i < taken; i++) {
+      if (result.get(owners[i]) == null) {
+        result.set(owners[i], new ArrayList<>());
+      }
+      result.get(owners[i]).add(removed.get(i));
+    }
+    return result;
+  }
+
+  private int findBest(int startFloor, int endFloor, List<Elevator> elevators, int[] room,
+                       int startTerminal) {
+    int best = -1;
+    int bestCost = Integer.MAX_VALUE;
+
+    for (int i = 0; i < elevators.size(); i++) {
+      if (room[i] <= 0) {
+        continue;
+      }
+
+      Elevator elevator = elevators.get(i);
+      int cost;
+      if (elevator.isTakingRequests()) {
+        if (elevator.getCurrentFloor() != startTerminal) {
+          continue;
+        }
+        cost = Math.abs(startFloor - startTerminal);
+      } else if (elevator.isOnTheWay(startFloor, endFloor)) {
+        cost = Math.abs(startFloor - elevator.getCurrentFloor())
+            + STOP_PENALTY * elevator.getPendingStopCount();
+        if (!elevator.isDoorClosed()) {
+          cost += elevator.getDoorOpenTimeLeft();
+        }
+      } else {
+        continue;
+      }
+
+      if (cost < bestCost) {
+        best = i;
+        bestCost = cost;
+      }
+    }
+
+    return best;
+  }
+}
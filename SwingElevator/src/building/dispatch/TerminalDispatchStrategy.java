@@ -0,0 +1,29 @@
+package building.dispatch;
+
+import elevator.Elevator;
+
+/**
+ * The original dispatch policy. Elevators waiting at the bottom floor take the oldest up
+ * requests and elevators waiting at the top floor take the oldest down requests, up to
+ * the elevator capacity. Moving elevators are never given requests.
+ */
+public class TerminalDispatchStrategy implements DispatchStrategy {
+  @Override
+  public void dispatch(DispatchContext context) {
+    int topFloor = context.getNumberOfFloors() - 1;
+    int capacity = context.getElevatorCapacity();
+
+    for (Elevator elevator : context.getElevators()) {
+      // Check if elevator takes a request
+      if (elevator.isTakingRequests()) {
+        // Assign upward requests to elevators on the first floor
+        if (elevator.getCurrentFloor() == 0) {
+          context.assign(elevator, context.getUpRequests().drain(capacity));
+        } else if (elevator.getCurrentFloor() == topFloor) {
+          // Assign downward requests to elevators on the top floor
+          context.assign(elevator, context.getDownRequests().drain(capacity));
+        }
+      }
+    }
+  }
+}
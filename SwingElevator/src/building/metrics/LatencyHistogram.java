@@ -0,0 +1,207 @@
+package building.metrics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A histogram of non-negative latencies in steps with a fixed relative precision, in the
+ * style of HdrHistogram. Values below 128 are counted exactly. Larger values share a
+ * bucket with values that differ by less than 1/64 of them, so every percentile is
+ * within about 1.6% of the true value. Recording is O(1) and never allocates.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 7;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+  private static final int BUCKET_COUNT =
+      SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * HALF_COUNT;
+
+  private final long[] counts;
+  private long totalCount;
+  private long sum;
+  private long min = Long.MAX_VALUE;
+  private long max;
+
+  /**
+   * Creates an empty histogram.
+   */
+  public LatencyHistogram() {
+    this.counts = new long[BUCKET_COUNT];
+  }
+
+  private LatencyHistogram(LatencyHistogram other) {
+    this.counts = other.counts.clone();
+    this.totalCount = other.totalCount;
+    this.sum = other.sum;
+    this.min = other.min;
+    this.max = other.max;
+  }
+
+  /**
+   * Record a latency.
+   *
+   * @param value the latency in steps.
+   * @throws IllegalArgumentException if value is negative.
+   */
+  public void record(long value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Latency can't be negative.");
+    }
+    counts[indexOf(value)]++;
+    totalCount++;
+    sum += value;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  private static int indexOf(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    // shift the value so its top bits land in [64, 128)
+    int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+    return SUB_BUCKET_COUNT + (shift - 1) * HALF_COUNT
+        + (int) ((value >>> shift) - HALF_COUNT);
+  }
+
+  private static long highestValueAt(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int offset = index - SUB_BUCKET_COUNT;
+    int shift = offset / HALF_COUNT + 1;
+    long subBucket = offset % HALF_COUNT + HALF_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+
+  /**
+   * Get the latency at a percentile. The result is the highest value of the bucket the
+   * percentile falls into, but never more than the largest recorded value.
+   *
+   * @param percentile the percentile, between 0 and 100.
+   * @return the latency at the percentile, or 0 if nothing was recorded.
+   * @throws IllegalArgumentException if percentile is outside 0 to 100.
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+    }
+    if (totalCount == 0) {
+      return 0;
+    }
+
+    long target = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= target) {
+        return Math.min(highestValueAt(i), max);
+      }
+    }
+    return max;
+  }
+
+  public long getCount() {
+    return totalCount;
+  }
+
+  /**
+   * Get the smallest recorded latency.
+   *
+   * @return the smallest latency, or 0 if nothing was recorded.
+   */
+  public long getMin() {
+    return totalCount == 0 ? 0 : min;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  /**
+   * Get the mean of the recorded latencies.
+   *
+   * @return the exact mean, or 0 if nothing was recorded.
+   */
+  public double getMean() {
+    return totalCount == 0 ? 0 : (double) sum / totalCount;
+  }
+
+  /**
+   * Remove every recorded latency.
+   */
+  public void reset() {
+    Arrays.fill(counts, 0);
+    totalCount = 0;
+    sum = 0;
+    min = Long.MAX_VALUE;
+    max = 0;
+  }
+
+  /**
+   * Write the recorded latencies for a checkpoint.
+   *
+   * @param out the output to write to.
+   * @throws IOException if writing fails.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeLong(totalCount);
+    out.writeLong(sum);
+    out.writeLong(min);
+    out.writeLong(max);
+    int used = counts.length;
+    while (used > 0 && counts[used - 1] == 0) {
+      used--;
+    }
+    out.writeInt(used);
+    for (int i = 0; i < used; i++) {
+      out.writeLong(counts[i]);
+    }
+  }
+
+  /**
+   * Replace the recorded latencies with ones written by writeTo.
+   *
+   * @param in the input to read from.
+   * @throws IOException if reading fails or the data is not a histogram.
+   */
+  public void readFrom(DataInput in) throws IOException {
+    long newTotal = in.readLong();
+    long newSum = in.readLong();
+    long newMin = in.readLong();
+    long newMax = in.readLong();
+    int used = in.readInt();
+    if (used < 0 || used > counts.length) {
+      throw new IOException("Histogram has " + used + " buckets, at most "
+          + counts.length + " are allowed.");
+    }
+    Arrays.fill(counts, 0);
+    for (int i = 0; i < used; i++) {
+      counts[i] = in.readLong();
+    }
+    totalCount = newTotal;
+    sum = newSum;
+    min = newMin;
+    max = newMax;
+  }
+
+  /**
+   * Create an independent copy of this histogram.
+   *
+   * @return the copy.
+   */
+  public LatencyHistogram copy() {
+    return new LatencyHistogram(this);
+  }
+
+  @Override
+  public String toString() {
+    return "count=" + totalCount
+        + " p50=" + getValueAtPercentile(50)
+        + " p95=" + getValueAtPercentile(95)
+        + " p99=" + getValueAtPercentile(99)
+        + " max=" + max;
+  }
+}
@@ -0,0 +1,79 @@
+package building.metrics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * This class holds the wait and ride time histograms of a building. The wait time of a
+ * request runs from the step it was queued to the step an elevator opens its door at the
+ * start floor, and the ride time from there to the step the door opens at the end floor.
+ */
+public final class LatencyMetrics {
+  private final LatencyHistogram waitTimes;
+  private final LatencyHistogram rideTimes;
+
+  /**
+   * Creates empty metrics.
+   */
+  public LatencyMetrics() {
+    this(new LatencyHistogram(), new LatencyHistogram());
+  }
+
+  private LatencyMetrics(LatencyHistogram waitTimes, LatencyHistogram rideTimes) {
+    this.waitTimes = waitTimes;
+    this.rideTimes = rideTimes;
+  }
+
+  public LatencyHistogram getWaitTimes() {
+    return waitTimes;
+  }
+
+  public LatencyHistogram getRideTimes() {
+    return rideTimes;
+  }
+
+  /**
+   * Remove every recorded latency.
+   */
+  public void reset() {
+    waitTimes.reset();
+    rideTimes.reset();
+  }
+
+  /**
+   * Write both histograms for a checkpoint.
+   *
+   * @param out the output to write to.
+   * @throws IOException if writing fails.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    waitTimes.writeTo(out);
+    rideTimes.writeTo(out);
+  }
+
+  /**
+   * Replace both histograms with ones written by writeTo.
+   *
+   * @param in the input to read from.
+   * @throws IOException if reading fails or the data is not valid.
+   */
+  public void readFrom(DataInput in) throws IOException {
+    waitTimes.readFrom(in);
+    rideTimes.readFrom(in);
+  }
+
+  /**
+   * Create an independent copy of these metrics.
+   *
+   * @return the copy.
+   */
+  public LatencyMetrics copy() {
+    return new LatencyMetrics(waitTimes.copy(), rideTimes.copy());
+  }
+
+  @Override
+  public String toString() {
+    return "wait[" + waitTimes + "] ride[" + rideTimes + "]";
+  }
+}
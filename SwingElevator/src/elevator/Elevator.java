@@ -1,8 +1,14 @@
 package elevator;
 
 
+import building.BuildingLimits;
 import building.enums.Direction;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import scanerzus.Request;
 
 
@@ -11,14 +17,15 @@ import scanerzus.Request;
  */
 public class Elevator implements ElevatorInterface {
   /************************************************************************
-   * static value used to initialize the elevator id.
+   * The next id of an elevator built outside a building. Elevators in a
+   * building are numbered by the building instead.
    ************************************************************************/
-  private static int newElevatorId = 0;
+  private static final AtomicInteger NEXT_ELEVATOR_ID = new AtomicInteger();
 
   /************************************************************************
    * The id of the elevator.This is read only.
    ************************************************************************/
-  private final int id = newElevatorId++;
+  private final int id;
 
   /************************************************************************
    * The total number of floors in the building.
@@ -76,13 +83,24 @@ public class Elevator implements ElevatorInterface {
 
 
   /************************************************************************
-   * The requests for the floors.
+   * The requests for the floors, one bit per floor.
    ************************************************************************/
-  private final boolean[] floorRequests; // true if there is a request for the floor.
+  private final StopRegistry floorRequests;
 
 
   private boolean outOfService;  // start must be issued on the elevator to start it.
 
+  /************************************************************************
+   * The number of requests handed to the elevator during the current run.
+   ************************************************************************/
+  private int ridersThisRun = 0;
+
+  /************************************************************************
+   * The number of riders of the current run getting off at each floor. They add up
+   * to ridersThisRun.
+   ************************************************************************/
+  private final int[] dropOffs;
+
 
   /**
    * The constructor for this elevator.
@@ -97,23 +115,79 @@ public class Elevator implements ElevatorInterface {
    * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
    */
   public Elevator(int maxFloor, int maxOccupancy) {
-    if (maxFloor < 3 || maxFloor > 30) {
-      throw new IllegalArgumentException("maxFloor must be between 3 and 30");
+    this(maxFloor, maxOccupancy, BuildingLimits.STANDARD);
+  }
+
+  /**
+   * The constructor for this elevator with a custom limits profile.
+   * The elevator is initially at the ground floor and is not moving.
+   *
+   * @param maxFloor     the total number of floors in the building
+   * @param maxOccupancy the maximum number of people that can fit in the elevator
+   * @param limits       the allowed range of floors and capacity
+   * @throws IllegalArgumentException if limits is null or the maxFloor or maxOccupancy
+   *         is out of range
+   */
+  public Elevator(int maxFloor, int maxOccupancy, BuildingLimits limits) {
+    this(NEXT_ELEVATOR_ID.getAndIncrement(), maxFloor, maxOccupancy, limits);
+  }
+
+  /**
+   * The constructor for an elevator with a given id. A building numbers its elevators
+   * 0 to n - 1, so the id can index arrays that hold per-elevator state.
+   * The elevator is initially at the ground floor and is not moving.
+   *
+   * @param id           the id of the elevator, must not be negative
+   * @param maxFloor     the total number of floors in the building
+   * @param maxOccupancy the maximum number of people that can fit in the elevator
+   * @param limits       the allowed range of floors and capacity
+   * @throws IllegalArgumentException if id is negative, limits is null or the maxFloor
+   *         or maxOccupancy is out of range
+   */
+  public Elevator(int id, int maxFloor, int maxOccupancy, BuildingLimits limits) {
+    if (id < 0) {
+      throw new IllegalArgumentException("id can't be negative");
+    }
+    if (limits == null) {
+      throw new IllegalArgumentException("limits can't be null");
     }
-    if (maxOccupancy < 3 || maxOccupancy > 20) {
-      throw new IllegalArgumentException("maxOccupancy must be between 3 and 20");
+    if (maxFloor < limits.getMinFloors() || maxFloor > limits.getMaxFloors()) {
+      throw new IllegalArgumentException("maxFloor must be between "
+          + limits.getMinFloors() + " and " + limits.getMaxFloors());
+    }
+    if (maxOccupancy < limits.getMinCapacity() || maxOccupancy > limits.getMaxCapacity()) {
+      throw new IllegalArgumentException("maxOccupancy must be between "
+          + limits.getMinCapacity() + " and " + limits.getMaxCapacity());
     }
 
+    this.id = id;
     this.maxFloor = maxFloor;
     this.maxOccupancy = maxOccupancy;
     this.currentFloor = 0;
     this.direction = Direction.STOPPED;
     this.outOfService = true;
-    this.floorRequests = new boolean[maxFloor];
+    this.floorRequests = new StopRegistry(maxFloor);
+    this.dropOffs = new int[maxFloor];
     this.takingRequests = false;
 
   }
 
+  private Elevator(Elevator other) {
+    this.id = other.id;
+    this.maxFloor = other.maxFloor;
+    this.maxOccupancy = other.maxOccupancy;
+    this.takingRequests = other.takingRequests;
+    this.currentFloor = other.currentFloor;
+    this.direction = other.direction;
+    this.doorOpenTimeLeft = other.doorOpenTimeLeft;
+    this.doorClosed = other.doorClosed;
+    this.stopWaitTimeLeft = other.stopWaitTimeLeft;
+    this.floorRequests = other.floorRequests.copy();
+    this.outOfService = other.outOfService;
+    this.ridersThisRun = other.ridersThisRun;
+    this.dropOffs = other.dropOffs.clone();
+  }
+
   /* ***********************************************************************
    * The following methods are the getters for the ElevatorStatus interface.
    * **********************************************************************/
@@ -177,13 +251,187 @@ public class Elevator implements ElevatorInterface {
   }
 
   /**
-   * Return the current stop requests.
+   * Return a copy of the current stop requests.
    *
    * @return the current stop requests.
    */
   @Override
   public boolean[] getFloorRequests() {
-    return this.floorRequests;
+    return this.floorRequests.toBooleanArray();
+  }
+
+  /**
+   * Get the number of floors the elevator still has to stop at.
+   *
+   * @return the number of pending stops.
+   */
+  @Override
+  public int getPendingStopCount() {
+    return this.floorRequests.cardinality();
+  }
+
+  /**
+   * Get the closest pending stop in the direction of travel, including the current floor.
+   *
+   * @return the floor of the next stop, or -1 if there is none ahead.
+   */
+  @Override
+  public int getNextStop() {
+    if (this.direction == Direction.UP) {
+      return this.floorRequests.nextSetBit(this.currentFloor);
+    } else if (this.direction == Direction.DOWN) {
+      return this.floorRequests.previousSetBit(this.currentFloor);
+    }
+    return this.floorRequests.get(this.currentFloor) ? this.currentFloor : -1;
+  }
+
+  /**
+   * Get the number of steps left before the door closes.
+   *
+   * @return the door timer.
+   */
+  public int getDoorOpenTimeLeft() {
+    return this.doorOpenTimeLeft;
+  }
+
+  /**
+   * Get the number of steps left waiting at the top or bottom.
+   *
+   * @return the end of run timer.
+   */
+  public int getStopWaitTimeLeft() {
+    return this.stopWaitTimeLeft;
+  }
+
+  /**
+   * Check if the elevator is out of service.
+   *
+   * @return true if the elevator is out of service.
+   */
+  public boolean isOutOfService() {
+    return this.outOfService;
+  }
+
+  /**
+   * Get the number of long words used to store the stop requests.
+   *
+   * @return the number of stop words.
+   */
+  public int getStopWordCount() {
+    return this.floorRequests.getWordCount();
+  }
+
+  /**
+   * Copy the stop requests as bitset words, without allocating.
+   *
+   * @param target the array to copy into.
+   * @param offset the position in target of the first word.
+   */
+  public void copyStopWords(long[] target, int offset) {
+    this.floorRequests.copyWords(target, offset);
+  }
+
+  /**
+   * Create an independent copy of this elevator, with the same id and running state.
+   *
+   * @return the copy.
+   */
+  public Elevator copy() {
+    return new Elevator(this);
+  }
+
+  /**
+   * Write everything that changes as the elevator runs, for a checkpoint. The id, floors
+   * and capacity are not written; they belong to the building.
+   *
+   * @param out the output to write to.
+   * @throws IOException if writing fails.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeInt(this.currentFloor);
+    out.writeByte(this.direction.ordinal());
+    out.writeBoolean(this.doorClosed);
+    out.writeInt(this.doorOpenTimeLeft);
+    out.writeInt(this.stopWaitTimeLeft);
+    out.writeBoolean(this.outOfService);
+    out.writeBoolean(this.takingRequests);
+    out.writeInt(this.ridersThisRun);
+    int floors = 0;
+    for (int count : this.dropOffs) {
+      if (count != 0) {
+        floors++;
+      }
+    }
+    out.writeInt(floors);
+    for (int floor = 0; floor < this.maxFloor; floor++) {
+      if (this.dropOffs[floor] != 0) {
+        out.writeInt(floor);
+        out.writeInt(this.dropOffs[floor]);
+      }
+    }
+    long[] words = new long[getStopWordCount()];
+    this.floorRequests.copyWords(words, 0);
+    for (long word : words) {
+      out.writeLong(word);
+    }
+  }
+
+  /**
+   * Replace the running state of the elevator with one written by writeTo for an
+   * elevator with the same number of floors.
+   *
+   * @param in the input to read from.
+   * @throws IOException if reading fails or the state is not valid for this elevator.
+   */
+  public void readFrom(DataInput in) throws IOException {
+    int floor = in.readInt();
+    int directionIndex = in.readByte();
+    boolean closed = in.readBoolean();
+    int doorTimer = in.readInt();
+    int waitTimer = in.readInt();
+    boolean stopped = in.readBoolean();
+    boolean taking = in.readBoolean();
+    int riders = in.readInt();
+    int[] drops = new int[this.maxFloor];
+    int dropFloors = in.readInt();
+    if (dropFloors < 0 || dropFloors > this.maxFloor) {
+      throw new IOException("Elevator " + this.id + " has an invalid state.");
+    }
+    long dropped = 0;
+    for (int i = 0; i < dropFloors; i++) {
+      int dropFloor = in.readInt();
+      int count = in.readInt();
+      if (dropFloor < 0 || dropFloor >= this.maxFloor || count <= 0) {
+        throw new IOException("Elevator " + this.id + " has an invalid state.");
+      }
+      drops[dropFloor] = count;
+      dropped += count;
+    }
+    long[] words = new long[getStopWordCount()];
+    for (int i = 0; i < words.length; i++) {
+      words[i] = in.readLong();
+    }
+
+    Direction[] directions = Direction.values();
+    if (floor < 0 || floor >= this.maxFloor || directionIndex < 0
+        || directionIndex >= directions.length || doorTimer < 0 || waitTimer < 0
+        || riders < 0 || dropped != riders) {
+      throw new IOException("Elevator " + this.id + " has an invalid state.");
+    }
+    try {
+      this.floorRequests.setWords(words, 0);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Elevator " + this.id + " has an invalid state.", e);
+    }
+    this.currentFloor = floor;
+    this.direction = directions[directionIndex];
+    this.doorClosed = closed;
+    this.doorOpenTimeLeft = doorTimer;
+    this.stopWaitTimeLeft = waitTimer;
+    this.outOfService = stopped;
+    this.takingRequests = taking;
+    this.ridersThisRun = riders;
+    System.arraycopy(drops, 0, this.dropOffs, 0, this.maxFloor);
   }
 
   /* ***********************************************************************
@@ -212,6 +460,7 @@ public class Elevator implements ElevatorInterface {
     this.doorOpenTimeLeft = 0;
     this.stopWaitTimeLeft = this.stopWaitTimeTotal;
     this.direction = Direction.UP;
+    this.clearRiders();
   }
 
 
@@ -246,10 +495,12 @@ public class Elevator implements ElevatorInterface {
     // the door is closed and we are not waiting at the top or bottom.
     // now we check to see if there is a request at this floor
     // We open the door and set the timer for 3 steps.
-    if (this.floorRequests[this.currentFloor]) {
+    if (this.floorRequests.get(this.currentFloor)) {
       this.doorClosed = false;
       this.doorOpenTimeLeft = this.doorOpenTimeTotal;
-      this.floorRequests[this.currentFloor] = false;
+      this.floorRequests.clear(this.currentFloor);
+      this.ridersThisRun -= this.dropOffs[this.currentFloor];
+      this.dropOffs[this.currentFloor] = 0;
       return;
     }
 
@@ -267,6 +518,7 @@ public class Elevator implements ElevatorInterface {
       this.direction = Direction.STOPPED;
       this.stopWaitTimeLeft = this.stopWaitTimeTotal;
       this.takingRequests = true;
+      this.clearRiders();
       return;
     }
 
@@ -278,6 +530,7 @@ public class Elevator implements ElevatorInterface {
       this.direction = Direction.STOPPED;
       this.stopWaitTimeLeft = this.stopWaitTimeTotal;
       this.takingRequests = true;
+      this.clearRiders();
       return;
     }
 
@@ -296,6 +549,93 @@ public class Elevator implements ElevatorInterface {
     }
   }
 
+  /**
+   * Get the number of upcoming steps that only count down a timer or move the elevator
+   * one floor, assuming it is given no new requests. Those steps can be applied in bulk
+   * with skipSteps. The step after them changes the state in some other way, such as
+   * opening or closing the door, turning around or reaching the ground floor.
+   *
+   * @return the number of quiet steps, or Integer.MAX_VALUE if the elevator is parked
+   *         out of service and will never change on its own.
+   */
+  @Override
+  public int getQuietSteps() {
+    if (this.outOfService) {
+      if (this.currentFloor == 0) {
+        return this.doorClosed ? 0 : Integer.MAX_VALUE;
+      }
+      if (!this.doorClosed) {
+        return Math.max(0, this.doorOpenTimeLeft - 1);
+      }
+      // the step that reaches the ground floor is never skipped
+      return this.currentFloor - 1;
+    }
+
+    if (!this.doorClosed) {
+      return Math.max(0, this.doorOpenTimeLeft - 1);
+    }
+
+    if (this.stopWaitTimeLeft > 0) {
+      return this.stopWaitTimeLeft - 1;
+    }
+
+    if (this.floorRequests.get(this.currentFloor)) {
+      return 0;
+    }
+
+    if (this.direction == Direction.UP && this.currentFloor < this.maxFloor - 1) {
+      int next = this.floorRequests.nextSetBit(this.currentFloor + 1);
+      return (next < 0 ? this.maxFloor - 1 : next) - this.currentFloor;
+    }
+
+    if (this.direction == Direction.DOWN && this.currentFloor > 0) {
+      int next = this.floorRequests.previousSetBit(this.currentFloor - 1);
+      return this.currentFloor - Math.max(next, 0);
+    }
+
+    return 0;
+  }
+
+  /**
+   * Apply a number of quiet steps at once. The result is the same as calling step that
+   * many times, at constant cost.
+   *
+   * @param steps the number of steps to apply, at most getQuietSteps().
+   * @throws IllegalArgumentException if steps is negative or more than getQuietSteps().
+   */
+  @Override
+  public void skipSteps(int steps) {
+    if (steps < 0 || steps > this.getQuietSteps()) {
+      throw new IllegalArgumentException("steps must be between 0 and the quiet steps");
+    }
+    if (steps == 0) {
+      return;
+    }
+
+    if (this.outOfService) {
+      if (this.currentFloor == 0) {
+        return;
+      }
+      if (!this.doorClosed) {
+        this.doorOpenTimeLeft -= steps;
+      } else {
+        this.direction = Direction.DOWN;
+        this.currentFloor -= steps;
+      }
+      return;
+    }
+
+    if (!this.doorClosed) {
+      this.doorOpenTimeLeft -= steps;
+    } else if (this.stopWaitTimeLeft > 0) {
+      this.stopWaitTimeLeft -= steps;
+    } else if (this.direction == Direction.UP) {
+      this.currentFloor += steps;
+    } else {
+      this.currentFloor -= steps;
+    }
+  }
+
   /**
    * Step the elevator when out of service.
    * If the elevator is on the ground floor and the door is open return
@@ -314,7 +654,7 @@ public class Elevator implements ElevatorInterface {
     if (this.currentFloor == 0) {
       this.doorClosed = false;
       // we can clear the floor requests now
-      this.floorRequests[this.currentFloor] = false;
+      this.floorRequests.clear(this.currentFloor);
       // we can set the elevator to stopped.
       this.direction = Direction.STOPPED;
       return;
@@ -362,17 +702,19 @@ public class Elevator implements ElevatorInterface {
 
   /**
    * Process the requests.  The Building will only give us requests
-   * that are on the way to our current direction.  That is,
-   * if we are at the bottom or the top.
-   * If a request is received to processRequests and the elevator
-   * is not on the first floor or the top floor then and exception
-   * will be thrown.
+   * that are on the way to our current direction.
+   * At the bottom or the top floor the requests replace any previous
+   * stops and start a new run.
+   * Anywhere else the elevator must be in service and moving, and every
+   * request must start ahead of the current floor and go the same way
+   * as the elevator.  Those requests are added to the current run.
+   * Otherwise an exception is thrown.
    */
   @Override
   public void processRequests(List<Request> requests) throws IllegalStateException {
     if (this.currentFloor != 0 && this.currentFloor != this.maxFloor - 1) {
-      throw new IllegalStateException("Elevator cannot process requests "
-          + "unless it is at the bottom or top floor.");
+      this.processRequestsOnTheWay(requests);
+      return;
     }
 
     if (requests.isEmpty()) {
@@ -380,6 +722,8 @@ public class Elevator implements ElevatorInterface {
     }
 
     this.processStopRequests(requests);
+    this.clearRiders();
+    this.board(requests);
     if (this.currentFloor == 0) {
       this.direction = Direction.UP;
     } else if (this.currentFloor == this.maxFloor - 1) {
@@ -389,6 +733,93 @@ public class Elevator implements ElevatorInterface {
 
   }
 
+  /**
+   * Add requests to a run that is already under way.
+   *
+   * @param requests requests that start ahead of the elevator in its direction.
+   */
+  private void processRequestsOnTheWay(List<Request> requests) {
+    for (Request request : requests) {
+      if (!this.isOnTheWay(request)) {
+        throw new IllegalStateException("Elevator cannot process requests "
+            + "unless it is at the bottom or top floor or they are on its way.");
+      }
+    }
+
+    for (Request request : requests) {
+      this.floorRequests.set(request.getStartFloor());
+      this.floorRequests.set(request.getEndFloor());
+    }
+    this.board(requests);
+  }
+
+  /**
+   * Count requests as riders of the current run until the door opens at their end floor.
+   */
+  private void board(List<Request> requests) {
+    for (Request request : requests) {
+      this.dropOffs[request.getEndFloor()]++;
+    }
+    this.ridersThisRun += requests.size();
+  }
+
+  /**
+   * Forget the riders of the current run.
+   */
+  private void clearRiders() {
+    if (this.ridersThisRun != 0) {
+      Arrays.fill(this.dropOffs, 0);
+      this.ridersThisRun = 0;
+    }
+  }
+
+  /**
+   * Check if a request can be picked up by this elevator during its current run.
+   * The elevator has to be in service and moving between the bottom and top floor, and
+   * the request has to start ahead of the current floor and go in the same direction.
+   *
+   * @param request the request to check.
+   * @return true if the request is on the way.
+   */
+  @Override
+  public boolean isOnTheWay(Request request) {
+    return this.isOnTheWay(request.getStartFloor(), request.getEndFloor());
+  }
+
+  /**
+   * Check if a trip can be picked up by this elevator during its current run, without
+   * a Request object.
+   *
+   * @param start the start floor of the trip.
+   * @param end   the end floor of the trip.
+   * @return true if the trip is on the way.
+   */
+  public boolean isOnTheWay(int start, int end) {
+    if (this.outOfService || this.takingRequests) {
+      return false;
+    }
+    if (this.currentFloor == 0 || this.currentFloor == this.maxFloor - 1) {
+      return false;
+    }
+
+    if (this.direction == Direction.UP) {
+      return start > this.currentFloor && end > start && end < this.maxFloor;
+    } else if (this.direction == Direction.DOWN) {
+      return start < this.currentFloor && end < start && end >= 0;
+    }
+    return false;
+  }
+
+  /**
+   * Get how many more requests the elevator can take during its current run.
+   *
+   * @return the remaining capacity of the run.
+   */
+  @Override
+  public int getRemainingCapacity() {
+    return Math.max(0, this.maxOccupancy - this.ridersThisRun);
+  }
+
   /**
    * Take the elevator out of service.
    */
@@ -400,6 +831,7 @@ public class Elevator implements ElevatorInterface {
 
     this.outOfService = true;
     this.stopWaitTimeLeft = 0;
+    this.clearRiders();
   }
 
   /**
@@ -418,8 +850,8 @@ public class Elevator implements ElevatorInterface {
     clearStopRequests();
 
     for (Request request : requests) {
-      this.floorRequests[request.getStartFloor()] = true;
-      this.floorRequests[request.getEndFloor()] = true;
+      this.floorRequests.set(request.getStartFloor());
+      this.floorRequests.set(request.getEndFloor());
     }
     // if the elevator was waiting at the top or bottom
     // set the timer to 0 and we are off to the races.
@@ -430,9 +862,7 @@ public class Elevator implements ElevatorInterface {
    * Clear the Floor Requests.
    */
   private void clearStopRequests() {
-    for (int i = 0; i < this.maxFloor; i++) {
-      this.floorRequests[i] = false;
-    }
+    this.floorRequests.clearAll();
   }
 
   /**
@@ -447,7 +877,7 @@ public class Elevator implements ElevatorInterface {
         this.currentFloor,
         this.direction,
         this.doorClosed,
-        this.floorRequests,
+        this.floorRequests.toStopSet(),
         this.doorOpenTimeLeft,
         this.stopWaitTimeLeft,
         this.outOfService,
@@ -469,7 +899,7 @@ public class Elevator implements ElevatorInterface {
         this.currentFloor,
         this.direction,
         this.doorClosed,
-        this.floorRequests,
+        this.floorRequests.toStopSet(),
         this.doorOpenTimeLeft,
         this.stopWaitTimeLeft,
         this.outOfService,
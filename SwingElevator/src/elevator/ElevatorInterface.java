@@ -64,6 +64,20 @@ public interface ElevatorInterface {
    */
   boolean[] getFloorRequests();
 
+  /**
+   * Returns the number of floors the elevator still has to stop at.
+   *
+   * @return the number of pending stops.
+   */
+  int getPendingStopCount();
+
+  /**
+   * Returns the closest pending stop in the direction of travel, including the current floor.
+   *
+   * @return the floor of the next stop, or -1 if there is none ahead.
+   */
+  int getNextStop();
+
   /**
    * start elevator.
    * This will start the elevator if the elevator is on the ground floor.
@@ -89,14 +103,50 @@ public interface ElevatorInterface {
    */
   void step();
 
+  /**
+   * Returns the number of upcoming steps that only count down a timer or move the
+   * elevator one floor, if it gets no new requests.
+   *
+   * @return the number of quiet steps, or Integer.MAX_VALUE if the elevator is idle.
+   */
+  int getQuietSteps();
+
+  /**
+   * Applies up to getQuietSteps() steps at once, with the same result as calling step
+   * that many times.
+   *
+   * @param steps the number of steps to apply.
+   * @throws IllegalArgumentException if steps is negative or more than getQuietSteps().
+   */
+  void skipSteps(int steps);
+
   /**
    * processUpRequests.
    * This will tell the elevator to process these upRequests on the next run.
-   * These are only accepted when the elevator is at the bottom floor.
+   * At the bottom or top floor the requests replace the current stops.
+   * Anywhere else every request must be on the way, see isOnTheWay.
    *
    * @param requests the request to add to the elevator.
+   * @throws IllegalStateException if the elevator is mid-shaft and a request is not on its way.
+   */
+  void processRequests(List<Request> requests) throws IllegalStateException;
+
+  /**
+   * isOnTheWay.
+   * This will tell the building if a moving elevator can pick up a request during
+   * its current run without turning around.
+   *
+   * @param request the request to check.
+   * @return true if the request starts ahead of the elevator and goes its way.
+   */
+  boolean isOnTheWay(Request request);
+
+  /**
+   * Returns how many more requests the elevator can take during its current run.
+   *
+   * @return the remaining capacity of the run.
    */
-  void processRequests(List<Request> requests) throws IllegalArgumentException;
+  int getRemainingCapacity();
 
 
   /**
@@ -9,7 +9,7 @@ public class ElevatorReport {
   private final int elevatorId;
   private final int currentFloor;
   private final boolean doorClosed;
-  private final boolean[] floorRequests;
+  private final StopSet floorRequests;
   private final Direction direction;
 
   private final int doorOpenTimer;
@@ -39,6 +39,33 @@ public class ElevatorReport {
                         boolean doorClosed,
                         boolean[] floorRequests,
 
+                        int doorOpenTimer,
+                        int endWaitTimer,
+                        boolean outOfService,
+                        boolean isTakingRequests) {
+    this(elevatorId, currentFloor, direction, doorClosed, StopSet.of(floorRequests),
+        doorOpenTimer, endWaitTimer, outOfService, isTakingRequests);
+  }
+
+  /**
+   * This constructor is used to create a new ElevatorReport object from an immutable
+   * stop set, which is kept as is.
+   *
+   * @param elevatorId       The id of the elevator.
+   * @param currentFloor     The current floor of the elevator.
+   * @param doorClosed       The status of the door.
+   * @param floorRequests    The requests for the floors.
+   * @param direction        The direction of the elevator.
+   * @param doorOpenTimer    The timer for the door.
+   * @param endWaitTimer     The timer for the end of the run.
+   * @param outOfService     The status of the elevator.
+   * @param isTakingRequests Is the elevator taking requests.
+   */
+  public ElevatorReport(int elevatorId,
+                        int currentFloor,
+                        Direction direction,
+                        boolean doorClosed,
+                        StopSet floorRequests,
                         int doorOpenTimer,
                         int endWaitTimer,
                         boolean outOfService,
@@ -87,9 +114,18 @@ public class ElevatorReport {
   /**
    * This method is used to get the requests for the floors.
    *
-   * @return The requests for the floors.
+   * @return a copy of the requests for the floors.
    */
   public boolean[] getFloorRequests() {
+    return floorRequests.toBooleanArray();
+  }
+
+  /**
+   * This method is used to get the requests for the floors without copying.
+   *
+   * @return The requests for the floors as an immutable set.
+   */
+  public StopSet getStopSet() {
     return floorRequests;
   }
 
@@ -169,8 +205,8 @@ public class ElevatorReport {
       sb.append(String.format("O %d]<", this.doorOpenTimer));
     }
 
-    for (int i = 0; i < this.floorRequests.length; i++) {
-      if (this.floorRequests[i]) {
+    for (int i = 0; i < this.floorRequests.getFloors(); i++) {
+      if (this.floorRequests.contains(i)) {
         sb.append(String.format(" %2d", i));
       } else {
         sb.append(" --");
@@ -220,12 +256,7 @@ public class ElevatorReport {
     if (this.isTakingRequests != that.isTakingRequests) {
       return false;
     }
-    for (int i = 0; i < this.floorRequests.length; i++) {
-      if (this.floorRequests[i] != that.floorRequests[i]) {
-        return false;
-      }
-    }
-    return true;
+    return this.floorRequests.equals(that.floorRequests);
   }
 
   /**
@@ -242,9 +273,7 @@ public class ElevatorReport {
     result = 31 * result + (this.outOfService ? 1 : 0);
     result = 31 * result + (this.isTakingRequests ? 1 : 0);
     result = 31 * result + this.direction.hashCode();
-    for (boolean floorRequest : this.floorRequests) {
-      result = 31 * result + (floorRequest ? 1 : 0);
-    }
+    result = 31 * result + this.floorRequests.hashCode();
     return result;
   }
 }
@@ -0,0 +1,247 @@
+package elevator;
+
+import java.util.Arrays;
+
+/**
+ * A set of floors an elevator has to stop at, stored as a bitset of long words.
+ * Membership tests and updates are O(1), the number of pending stops is kept as a
+ * running count, and looking ahead for the next stop in either direction scans one
+ * word per 64 floors.
+ */
+public final class StopRegistry {
+  private static final int WORD_BITS = 6;
+
+  private final int floors;
+  private final long[] words;
+  private int count;
+  private StopSet frozen;
+
+  /**
+   * Creates an empty registry.
+   *
+   * @param floors the number of floors in the building.
+   * @throws IllegalArgumentException if floors is not positive.
+   */
+  public StopRegistry(int floors) {
+    if (floors <= 0) {
+      throw new IllegalArgumentException("floors must be positive");
+    }
+    this.floors = floors;
+    this.words = new long[((floors - 1) >> WORD_BITS) + 1];
+  }
+
+  private StopRegistry(StopRegistry other) {
+    this.floors = other.floors;
+    this.words = other.words.clone();
+    this.count = other.count;
+    this.frozen = other.frozen;
+  }
+
+  /**
+   * Check if there is a stop at a floor.
+   *
+   * @param floor the floor to check.
+   * @return true if the elevator has to stop at the floor.
+   */
+  public boolean get(int floor) {
+    return (words[floor >> WORD_BITS] & (1L << floor)) != 0;
+  }
+
+  /**
+   * Add a stop at a floor.
+   *
+   * @param floor the floor to stop at.
+   */
+  public void set(int floor) {
+    int index = floor >> WORD_BITS;
+    long bit = 1L << floor;
+    if ((words[index] & bit) == 0) {
+      words[index] |= bit;
+      count++;
+      frozen = null;
+    }
+  }
+
+  /**
+   * Remove the stop at a floor.
+   *
+   * @param floor the floor to remove.
+   */
+  public void clear(int floor) {
+    int index = floor >> WORD_BITS;
+    long bit = 1L << floor;
+    if ((words[index] & bit) != 0) {
+      words[index] &= ~bit;
+      count--;
+      frozen = null;
+    }
+  }
+
+  /**
+   * Remove every stop. This is free when there are no stops.
+   */
+  public void clearAll() {
+    if (count != 0) {
+      Arrays.fill(words, 0L);
+      count = 0;
+      frozen = null;
+    }
+  }
+
+  /**
+   * Replace every stop with raw words, as copied by copyWords.
+   *
+   * @param source the array holding the words.
+   * @param offset the position in source of the first word.
+   * @throws IllegalArgumentException if a word has a stop above the top floor.
+   */
+  public void setWords(long[] source, int offset) {
+    int last = words.length - 1;
+    long valid = (floors & 63) == 0 ? -1L : (1L << floors) - 1;
+    if ((source[offset + last] & ~valid) != 0) {
+      throw new IllegalArgumentException("stops must be below floor " + floors);
+    }
+    int newCount = 0;
+    for (int i = 0; i < words.length; i++) {
+      words[i] = source[offset + i];
+      newCount += Long.bitCount(words[i]);
+    }
+    count = newCount;
+    frozen = null;
+  }
+
+  /**
+   * Find the lowest stop at or above a floor.
+   *
+   * @param from the floor to start looking from.
+   * @return the floor of the next stop, or -1 if there is none.
+   */
+  public int nextSetBit(int from) {
+    if (from < 0) {
+      from = 0;
+    }
+    if (from >= floors || count == 0) {
+      return -1;
+    }
+
+    int index = from >> WORD_BITS;
+    long word = words[index] & (-1L << from);
+    while (true) {
+      if (word != 0) {
+        return (index << WORD_BITS) + Long.numberOfTrailingZeros(word);
+      }
+      if (++index == words.length) {
+        return -1;
+      }
+      word = words[index];
+    }
+  }
+
+  /**
+   * Find the highest stop at or below a floor.
+   *
+   * @param from the floor to start looking from.
+   * @return the floor of the previous stop, or -1 if there is none.
+   */
+  public int previousSetBit(int from) {
+    if (from >= floors) {
+      from = floors - 1;
+    }
+    if (from < 0 || count == 0) {
+      return -1;
+    }
+
+    int index = from >> WORD_BITS;
+    long word = words[index] & (-1L >>> (63 - (from & 63)));
+    while (true) {
+      if (word != 0) {
+        return (index << WORD_BITS) + 63 - Long.numberOfLeadingZeros(word);
+      }
+      if (index-- == 0) {
+        return -1;
+      }
+      word = words[index];
+    }
+  }
+
+  /**
+   * Get the number of pending stops.
+   *
+   * @return the number of floors with a stop.
+   */
+  public int cardinality() {
+    return count;
+  }
+
+  /**
+   * Check if there are no pending stops.
+   *
+   * @return true if there are no stops.
+   */
+  public boolean isEmpty() {
+    return count == 0;
+  }
+
+  /**
+   * Get the number of floors this registry covers.
+   *
+   * @return the number of floors.
+   */
+  public int getFloors() {
+    return floors;
+  }
+
+  /**
+   * Get the number of long words backing the registry.
+   *
+   * @return the number of words.
+   */
+  public int getWordCount() {
+    return words.length;
+  }
+
+  /**
+   * Copy the raw words into an array.
+   *
+   * @param target the array to copy into.
+   * @param offset the position in target of the first word.
+   */
+  public void copyWords(long[] target, int offset) {
+    System.arraycopy(words, 0, target, offset, words.length);
+  }
+
+  /**
+   * Create an independent copy of this registry. The cached immutable set is shared.
+   *
+   * @return the copy.
+   */
+  public StopRegistry copy() {
+    return new StopRegistry(this);
+  }
+
+  /**
+   * Get an immutable copy of the stops. The copy is cached until the registry changes,
+   * so repeated reports of an unchanged elevator share one instance.
+   *
+   * @return the stops as an immutable set.
+   */
+  public StopSet toStopSet() {
+    if (frozen == null) {
+      frozen = StopSet.fromWords(words, 0, floors);
+    }
+    return frozen;
+  }
+
+  /**
+   * Copy the stops into a new boolean array, one entry per floor.
+   *
+   * @return the stops as a boolean array.
+   */
+  public boolean[] toBooleanArray() {
+    boolean[] result = new boolean[floors];
+    for (int floor = nextSetBit(0); floor >= 0; floor = nextSetBit(floor + 1)) {
+      result[floor] = true;
+    }
+    return result;
+  }
+}
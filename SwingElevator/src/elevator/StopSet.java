@@ -0,0 +1,130 @@
+package elevator;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of floors an elevator has to stop at. Buildings with up to 64 floors
+ * keep the whole set in a single long; taller buildings fall back to an array of words.
+ * Instances are safe to keep after the elevator has moved on, and equals and hashCode
+ * cost one comparison per 64 floors.
+ */
+public final class StopSet {
+  private final int floors;
+  private final long bits;
+  private final long[] words;
+
+  private StopSet(int floors, long bits, long[] words) {
+    this.floors = floors;
+    this.bits = bits;
+    this.words = words;
+  }
+
+  /**
+   * Create a stop set from one flag per floor.
+   *
+   * @param floorRequests true for every floor with a stop.
+   * @return the stop set.
+   */
+  public static StopSet of(boolean[] floorRequests) {
+    int floors = floorRequests.length;
+    long[] packed = new long[wordCount(floors)];
+    for (int floor = 0; floor < floors; floor++) {
+      if (floorRequests[floor]) {
+        packed[floor >> 6] |= 1L << floor;
+      }
+    }
+    return fromWords(packed, 0, floors);
+  }
+
+  /**
+   * Create a stop set from bitset words. The words are copied.
+   *
+   * @param source the array holding the words.
+   * @param offset the position of the first word in source.
+   * @param floors the number of floors in the building.
+   * @return the stop set.
+   */
+  public static StopSet fromWords(long[] source, int offset, int floors) {
+    int count = wordCount(floors);
+    if (count == 1) {
+      return new StopSet(floors, source[offset], null);
+    }
+    return new StopSet(floors, 0L, Arrays.copyOfRange(source, offset, offset + count));
+  }
+
+  private static int wordCount(int floors) {
+    return Math.max(1, ((floors - 1) >> 6) + 1);
+  }
+
+  /**
+   * Check if there is a stop at a floor.
+   *
+   * @param floor the floor to check.
+   * @return true if the floor is in the set.
+   */
+  public boolean contains(int floor) {
+    if (floor < 0 || floor >= floors) {
+      return false;
+    }
+    long word = words == null ? bits : words[floor >> 6];
+    return (word & (1L << floor)) != 0;
+  }
+
+  /**
+   * Get the number of stops in the set.
+   *
+   * @return the number of stops.
+   */
+  public int size() {
+    if (words == null) {
+      return Long.bitCount(bits);
+    }
+    int count = 0;
+    for (long word : words) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  /**
+   * Get the number of floors the set covers.
+   *
+   * @return the number of floors.
+   */
+  public int getFloors() {
+    return floors;
+  }
+
+  /**
+   * Copy the set into a new boolean array, one entry per floor.
+   *
+   * @return the stops as a boolean array.
+   */
+  public boolean[] toBooleanArray() {
+    boolean[] result = new boolean[floors];
+    for (int floor = 0; floor < floors; floor++) {
+      result[floor] = contains(floor);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof StopSet)) {
+      return false;
+    }
+    StopSet that = (StopSet) o;
+    return this.floors == that.floors
+        && this.bits == that.bits
+        && Arrays.equals(this.words, that.words);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 31 * floors + Long.hashCode(bits);
+    return 31 * result + Arrays.hashCode(words);
+  }
+}
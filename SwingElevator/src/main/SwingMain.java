@@ -3,6 +3,7 @@ package main;
 import building.Building;
 import building.BuildingControllerInterface;
 import building.BuildingInterface;
+import building.IconCache;
 import building.SwingBuildingController;
 import building.SwingBuildingView;
 import building.SwingBuildingViewInterface;
@@ -17,6 +18,8 @@ public class SwingMain {
    * @param args command line arguments
    * */
   public static void main(String[] args) {
+    // read the icons while Swing starts up
+    IconCache.preload();
     SwingBuildingViewInterface view = new SwingBuildingView(13, 4);
     BuildingInterface model = new Building(13, 4, 5);
     BuildingControllerInterface controller = new SwingBuildingController(view, model);
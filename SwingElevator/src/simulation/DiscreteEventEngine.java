@@ -0,0 +1,221 @@
+package simulation;
+
+import building.BuildingInterface;
+import building.BuildingReport;
+import building.enums.ElevatorSystemStatus;
+import elevator.Elevator;
+import java.util.PriorityQueue;
+
+/**
+ * A headless driver that moves time from one event to the next instead of one tick at a
+ * time. Events are kept in a priority queue ordered by tick: request arrivals from the
+ * request source, dispatches of waiting requests, and for every elevator the next floor
+ * arrival, door close or end of a terminal wait. Between two events the building is
+ * advanced in one call, so empty stretches of a quiet night cost almost nothing.
+ * The building reports seen at the events are the same as the ones a tick-by-tick run
+ * would give on those ticks.
+ */
+public class DiscreteEventEngine {
+  private static final long FIRED = Long.MIN_VALUE;
+
+  private final BuildingInterface building;
+  private final RequestSource source;
+  private final PriorityQueue<SimulationEvent> events = new PriorityQueue<>();
+  private EventListener listener;
+  private long[] scheduled;
+  private long tick;
+  private long dispatchTick = -1;
+  private long handledEvents;
+  private long submittedRequests;
+  private long rejectedRequests;
+
+  /**
+   * Creates an engine for the given building and request source.
+   *
+   * @param building the building to simulate.
+   * @param source   the requests to feed into the building.
+   * @throws IllegalArgumentException if either argument is null.
+   */
+  public DiscreteEventEngine(BuildingInterface building, RequestSource source) {
+    if (building == null || source == null) {
+      throw new IllegalArgumentException("Building and request source can't be null.");
+    }
+    this.building = building;
+    this.source = source;
+  }
+
+  /**
+   * Set the listener that is told about every event.
+   *
+   * @param listener the listener, or null to remove it.
+   */
+  public void setEventListener(EventListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Run the building for a number of steps, handling every event on the way.
+   * The building is started first if it is out of service. Calling run again continues
+   * from where the previous run stopped.
+   *
+   * @param steps the number of steps to run.
+   * @return the aggregate results of this run.
+   * @throws IllegalArgumentException if steps is negative.
+   */
+  public SimulationResult run(long steps) {
+    if (steps < 0) {
+      throw new IllegalArgumentException("Number of steps can't be negative.");
+    }
+
+    if (building.getStatus() == ElevatorSystemStatus.outOfService) {
+      building.startElevatorSystem();
+    }
+    if (scheduled == null) {
+      scheduled = new long[building.getNumberOfElevators()];
+      for (int i = 0; i < scheduled.length; i++) {
+        scheduleElevator(i);
+      }
+      scheduleRequest();
+    }
+
+    long submittedBefore = submittedRequests;
+    long rejectedBefore = rejectedRequests;
+    long start = System.nanoTime();
+    long end = tick + steps;
+
+    while (!events.isEmpty() && events.peek().getTick() <= end) {
+      long next = events.peek().getTick();
+      building.advanceElevatorSystem(next - tick);
+      tick = next;
+      handleEvents();
+    }
+    building.advanceElevatorSystem(end - tick);
+    tick = end;
+
+    long elapsed = System.nanoTime() - start;
+    return new SimulationResult(steps,
+        submittedRequests - submittedBefore,
+        rejectedRequests - rejectedBefore,
+        building.getUpRequest().size() + building.getDownRequest().size(),
+        elapsed,
+        building.getElevatorSystemStatus(),
+        building.getLatencyMetrics());
+  }
+
+  /**
+   * Handle every event on the current tick, then schedule what follows from them.
+   */
+  private void handleEvents() {
+    BuildingReport report = null;
+    boolean dispatched = false;
+
+    while (!events.isEmpty() && events.peek().getTick() == tick) {
+      SimulationEvent event = events.poll();
+      switch (event.getType()) {
+        case REQUEST_ARRIVAL:
+          while (source.nextTick() <= tick) {
+            submit();
+          }
+          scheduleRequest();
+          break;
+        case REQUEST_DISPATCH:
+          dispatched = true;
+          break;
+        default:
+          // an elevator event is stale once a dispatch has changed the elevator's plan
+          if (scheduled[event.getElevator()] != tick) {
+            continue;
+          }
+          scheduled[event.getElevator()] = FIRED;
+          break;
+      }
+
+      handledEvents++;
+      if (listener != null) {
+        if (report == null) {
+          report = building.getElevatorSystemStatus();
+        }
+        listener.onEvent(event, report);
+      }
+    }
+
+    for (int i = 0; i < scheduled.length; i++) {
+      if (dispatched || scheduled[i] == FIRED) {
+        scheduleElevator(i);
+      }
+    }
+
+    // waiting requests are handed out by the next step
+    if (building.getStatus() == ElevatorSystemStatus.running
+        && (!building.getUpRequest().isEmpty() || !building.getDownRequest().isEmpty())) {
+      scheduleDispatch(tick + 1);
+    }
+  }
+
+  private void scheduleElevator(int index) {
+    Elevator elevator = building.getElevators().get(index);
+    int quiet = elevator.getQuietSteps();
+    if (quiet == Integer.MAX_VALUE) {
+      // parked out of service, nothing will happen until the system is restarted
+      scheduled[index] = -1;
+      return;
+    }
+
+    EventType type;
+    if (!elevator.isDoorClosed()) {
+      type = EventType.DOOR_CLOSE;
+    } else if (elevator.getStopWaitTimeLeft() > 0) {
+      type = EventType.WAIT_EXPIRY;
+    } else {
+      type = EventType.FLOOR_ARRIVAL;
+    }
+
+    long when = tick + quiet + 1;
+    if (scheduled[index] != when) {
+      scheduled[index] = when;
+      events.add(new SimulationEvent(when, type, index));
+    }
+  }
+
+  private void scheduleRequest() {
+    long when = source.nextTick();
+    if (when != Long.MAX_VALUE) {
+      events.add(new SimulationEvent(Math.max(when, tick), EventType.REQUEST_ARRIVAL, -1));
+    }
+  }
+
+  private void scheduleDispatch(long when) {
+    if (dispatchTick != when) {
+      dispatchTick = when;
+      events.add(new SimulationEvent(when, EventType.REQUEST_DISPATCH, -1));
+    }
+  }
+
+  private void submit() {
+    try {
+      building.addRequest(source.next());
+      submittedRequests++;
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      rejectedRequests++;
+    }
+  }
+
+  /**
+   * Get the number of steps this engine has run so far.
+   *
+   * @return the current tick of the engine.
+   */
+  public long getTick() {
+    return tick;
+  }
+
+  /**
+   * Get the number of events this engine has handled so far. Stale elevator events that
+   * were replaced after a dispatch are not counted.
+   *
+   * @return the number of handled events.
+   */
+  public long getHandledEvents() {
+    return handledEvents;
+  }
+}
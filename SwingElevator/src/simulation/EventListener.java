@@ -0,0 +1,19 @@
+package simulation;
+
+import building.BuildingReport;
+
+/**
+ * This interface represents an observer of the events handled by the discrete-event
+ * engine.
+ */
+public interface EventListener {
+  /**
+   * Called once for every event, after the building has reached the tick of the event
+   * and every request arriving on that tick has been added.
+   *
+   * @param event  the event.
+   * @param report the status of the building at the tick of the event. Events on the
+   *               same tick share the report.
+   */
+  void onEvent(SimulationEvent event, BuildingReport report);
+}
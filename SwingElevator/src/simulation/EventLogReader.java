@@ -0,0 +1,467 @@
+package simulation;
+
+import building.BuildingReport;
+import building.RequestLifecycleListener;
+import building.enums.Direction;
+import building.enums.ElevatorSystemStatus;
+import elevator.ElevatorReport;
+import elevator.StopSet;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import scanerzus.Request;
+
+/**
+ * Reads a log written by EventLogWriter and rebuilds the state of the building at any
+ * tick. The log is read forward in chunks and replayed onto one set of per-elevator
+ * arrays; asking for an earlier tick than the last one starts again from the top of the
+ * file. A record cut short at the end of the file, as left by a crash mid-flush, is
+ * ignored.
+ */
+public class EventLogReader implements Closeable {
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final ElevatorSystemStatus[] STATUSES = ElevatorSystemStatus.values();
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+  private final int numFloors;
+  private final int numElevators;
+  private final int elevatorCapacity;
+  private final int words;
+  private final long firstTick;
+  private final int[] elevatorIds;
+  private final long headerEnd;
+
+  private final int[] currentFloors;
+  private final Direction[] directions;
+  private final int[] flags;
+  private final int[] doorOpenTimers;
+  private final int[] endWaitTimers;
+  private final long[] stopWords;
+  private final long[] changedWords;
+  private final ReplayQueue upRequests = new ReplayQueue();
+  private final ReplayQueue downRequests = new ReplayQueue();
+  private ElevatorSystemStatus status;
+  private long tick;
+  private long pendingTick = -1;
+  private boolean ended;
+  private long position;
+  private RequestLifecycleListener listener;
+
+  /**
+   * Opens a log and reads the state of the building when logging started.
+   *
+   * @param log the path of the log.
+   * @throws IOException if the file can't be read or is not an event log.
+   */
+  public EventLogReader(Path log) throws IOException {
+    this.channel = FileChannel.open(log, StandardOpenOption.READ);
+    try {
+      buffer.limit(0);
+      need(Long.BYTES);
+      if (buffer.getLong() != EventLogWriter.MAGIC) {
+        throw new IOException("Not an event log: " + log);
+      }
+      numFloors = (int) getVarLong();
+      numElevators = (int) getVarLong();
+      elevatorCapacity = (int) getVarLong();
+      firstTick = getVarLong();
+      elevatorIds = new int[numElevators];
+      for (int i = 0; i < numElevators; i++) {
+        elevatorIds[i] = (int) getVarLong();
+      }
+      headerEnd = position - buffer.remaining();
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+
+    words = Math.max(1, ((numFloors - 1) >> 6) + 1);
+    currentFloors = new int[numElevators];
+    directions = new Direction[numElevators];
+    flags = new int[numElevators];
+    doorOpenTimers = new int[numElevators];
+    endWaitTimers = new int[numElevators];
+    stopWords = new long[numElevators * words];
+    changedWords = new long[words * 2];
+    rewind();
+  }
+
+  /**
+   * Set a listener that is told about every request lifecycle event as it is replayed.
+   *
+   * @param listener the listener, or null for none.
+   */
+  public void setRequestListener(RequestLifecycleListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Rebuild the report of the building at a tick. Ticks that were never recorded show
+   * the last state recorded before them.
+   *
+   * @param at the tick to rebuild.
+   * @return a new report of the building.
+   * @throws IOException if the log can't be read.
+   * @throws IllegalArgumentException if the tick is before logging started.
+   */
+  public BuildingReport reportAt(long at) throws IOException {
+    if (at < firstTick) {
+      throw new IllegalArgumentException("Tick " + at + " is before the log starts.");
+    }
+    if (at < tick) {
+      rewind();
+    }
+    advanceTo(at);
+    return toBuildingReport();
+  }
+
+  /**
+   * Get the tick of the last record replayed.
+   *
+   * @return the current tick of the reader.
+   */
+  public long getTick() {
+    return tick;
+  }
+
+  public long getFirstTick() {
+    return firstTick;
+  }
+
+  public int getNumFloors() {
+    return numFloors;
+  }
+
+  public int getNumElevators() {
+    return numElevators;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private void rewind() throws IOException {
+    position = headerEnd;
+    buffer.limit(0);
+    tick = firstTick;
+    pendingTick = -1;
+    ended = false;
+    upRequests.clear();
+    downRequests.clear();
+    advanceTo(firstTick);
+  }
+
+  private void advanceTo(long at) throws IOException {
+    if (pendingTick >= 0) {
+      if (pendingTick > at) {
+        return;
+      }
+      tick = pendingTick;
+      pendingTick = -1;
+    }
+
+    while (!ended) {
+      try {
+        if (!readRecord(at)) {
+          return;
+        }
+      } catch (EOFException e) {
+        // the end of the log, or a record cut short by a crash, which is never applied
+        ended = true;
+      }
+    }
+  }
+
+  /**
+   * Read and apply one record.
+   *
+   * @return false if the record moves past the requested tick.
+   */
+  private boolean readRecord(long at) throws IOException {
+    if (!buffer.hasRemaining() && !fill()) {
+      throw new EOFException();
+    }
+    int type = buffer.get();
+    if ((type & EventLogWriter.CAR) != 0) {
+      readCar(type & EventLogWriter.ALL_CHANGED);
+      return true;
+    }
+    switch (type) {
+      case EventLogWriter.TICK:
+        long next = tick + getVarLong();
+        if (next > at) {
+          pendingTick = next;
+          return false;
+        }
+        tick = next;
+        return true;
+      case EventLogWriter.STATUS:
+        status = STATUSES[getOrdinal(STATUSES.length, "system status")];
+        return true;
+      case EventLogWriter.CLEARED:
+        upRequests.clear();
+        downRequests.clear();
+        if (listener != null) {
+          listener.requestsCleared(tick);
+        }
+        return true;
+      case EventLogWriter.QUEUED:
+        readEvent(type, -1);
+        return true;
+      case EventLogWriter.ASSIGNED:
+      case EventLogWriter.PICKED_UP:
+      case EventLogWriter.DELIVERED:
+        readEvent(type, getElevator());
+        return true;
+      default:
+        throw new IOException("Unknown record type " + type + " in event log.");
+    }
+  }
+
+  private void readCar(int changes) throws IOException {
+    int elevator = getElevator();
+    // decode the whole record before applying it, so a cut-off record changes nothing
+    int floor = currentFloors[elevator];
+    Direction direction = directions[elevator];
+    int flag = flags[elevator];
+    int doorTimer = doorOpenTimers[elevator];
+    int waitTimer = endWaitTimers[elevator];
+    if ((changes & EventLogWriter.FLOOR_CHANGED) != 0) {
+      floor = (int) getVarLong();
+    }
+    if ((changes & EventLogWriter.DIRECTION_CHANGED) != 0) {
+      direction = DIRECTIONS[getOrdinal(DIRECTIONS.length, "direction")];
+    }
+    if ((changes & EventLogWriter.FLAGS_CHANGED) != 0) {
+      need(1);
+      flag = buffer.get();
+    }
+    if ((changes & EventLogWriter.DOOR_TIMER_CHANGED) != 0) {
+      doorTimer = (int) getVarLong();
+    }
+    if ((changes & EventLogWriter.WAIT_TIMER_CHANGED) != 0) {
+      waitTimer = (int) getVarLong();
+    }
+    int changedCount = 0;
+    if ((changes & EventLogWriter.STOPS_CHANGED) != 0) {
+      changedCount = (int) getVarLong();
+      if (changedCount > words) {
+        throw new IOException("Elevator record changes " + changedCount + " stop words.");
+      }
+      for (int i = 0; i < changedCount; i++) {
+        long word = getVarLong();
+        if (word >= words) {
+          throw new IOException("Elevator record changes stop word " + word + ".");
+        }
+        changedWords[2 * i] = word;
+        changedWords[2 * i + 1] = getVarLong();
+      }
+    }
+
+    currentFloors[elevator] = floor;
+    directions[elevator] = direction;
+    flags[elevator] = flag;
+    doorOpenTimers[elevator] = doorTimer;
+    endWaitTimers[elevator] = waitTimer;
+    for (int i = 0; i < 2 * changedCount; i += 2) {
+      stopWords[elevator * words + (int) changedWords[i]] = changedWords[i + 1];
+    }
+  }
+
+  private void readEvent(int type, int elevator) throws IOException {
+    int startFloor = (int) getVarLong();
+    int endFloor = (int) getVarLong();
+    ReplayQueue queue = startFloor > endFloor ? downRequests : upRequests;
+
+    switch (type) {
+      case EventLogWriter.QUEUED:
+        queue.add(startFloor, endFloor);
+        if (listener != null) {
+          listener.requestQueued(startFloor, endFloor, tick);
+        }
+        break;
+      case EventLogWriter.ASSIGNED:
+        // equal requests can't be told apart, so taking the oldest one is exact
+        queue.removeOldest(startFloor, endFloor);
+        if (listener != null) {
+          listener.requestAssigned(elevator, startFloor, endFloor, tick);
+        }
+        break;
+      case EventLogWriter.PICKED_UP:
+        if (listener != null) {
+          listener.requestPickedUp(elevator, startFloor, endFloor, tick);
+        }
+        break;
+      default:
+        if (listener != null) {
+          listener.requestDelivered(elevator, startFloor, endFloor, tick);
+        }
+        break;
+    }
+  }
+
+  private BuildingReport toBuildingReport() {
+    ElevatorReport[] reports = new ElevatorReport[numElevators];
+    for (int i = 0; i < numElevators; i++) {
+      reports[i] = new ElevatorReport(elevatorIds[i],
+          currentFloors[i],
+          directions[i],
+          (flags[i] & EventLogWriter.DOOR_CLOSED) != 0,
+          StopSet.fromWords(stopWords, i * words, numFloors),
+          doorOpenTimers[i],
+          endWaitTimers[i],
+          (flags[i] & EventLogWriter.OUT_OF_SERVICE) != 0,
+          (flags[i] & EventLogWriter.TAKING_REQUESTS) != 0);
+    }
+    return new BuildingReport(numFloors, numElevators, elevatorCapacity, reports,
+        upRequests.toList(), downRequests.toList(), status);
+  }
+
+  /**
+   * Read the index of an elevator of the building.
+   */
+  private int getElevator() throws IOException {
+    long elevator = getVarLong();
+    if (elevator < 0 || elevator >= numElevators) {
+      throw new IOException("Unknown elevator " + elevator + " in event log.");
+    }
+    return (int) elevator;
+  }
+
+  /**
+   * Read the one byte ordinal of an enum constant.
+   */
+  private int getOrdinal(int count, String what) throws IOException {
+    need(1);
+    int ordinal = buffer.get();
+    if (ordinal < 0 || ordinal >= count) {
+      throw new IOException("Unknown " + what + " " + ordinal + " in event log.");
+    }
+    return ordinal;
+  }
+
+  /**
+   * Read an unsigned LEB128 integer.
+   */
+  private long getVarLong() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      need(1);
+      byte b = buffer.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed number in event log.");
+  }
+
+  /**
+   * Make sure the buffer holds at least a number of unread bytes.
+   */
+  private void need(int bytes) throws IOException {
+    while (buffer.remaining() < bytes) {
+      if (!fill()) {
+        throw new EOFException();
+      }
+    }
+  }
+
+  /**
+   * Read more of the file into the buffer, keeping the unread bytes.
+   *
+   * @return false at the end of the file.
+   */
+  private boolean fill() throws IOException {
+    buffer.compact();
+    int read = channel.read(buffer, position);
+    buffer.flip();
+    if (read <= 0) {
+      return false;
+    }
+    position += read;
+    return true;
+  }
+
+  /**
+   * The pending requests of one direction, in queue order. An assigned request leaves a
+   * gap that is skipped and dropped once it reaches the head, and every pair of floors
+   * keeps the positions of its requests oldest first, so replaying a queued or an
+   * assigned event is O(1) however long the backlog is.
+   */
+  private static final class ReplayQueue {
+    private static final long REMOVED = -1;
+
+    private final Map<Long, ArrayDeque<Long>> positions = new HashMap<>();
+    private long[] entries = new long[16];
+    private int head;
+    private int tail;
+    private long base;
+
+    void add(int startFloor, int endFloor) {
+      if (tail == entries.length) {
+        makeRoom();
+      }
+      long entry = key(startFloor, endFloor);
+      positions.computeIfAbsent(entry, k -> new ArrayDeque<>()).addLast(base + tail);
+      entries[tail++] = entry;
+    }
+
+    void removeOldest(int startFloor, int endFloor) {
+      ArrayDeque<Long> same = positions.get(key(startFloor, endFloor));
+      if (same == null || same.isEmpty()) {
+        return;
+      }
+      entries[(int) (same.pollFirst() - base)] = REMOVED;
+      while (head < tail && entries[head] == REMOVED) {
+        head++;
+      }
+    }
+
+    void clear() {
+      positions.clear();
+      head = 0;
+      tail = 0;
+      base = 0;
+    }
+
+    List<Request> toList() {
+      List<Request> requests = new ArrayList<>(tail - head);
+      for (int i = head; i < tail; i++) {
+        if (entries[i] != REMOVED) {
+          requests.add(new Request((int) (entries[i] >>> 32), (int) entries[i]));
+        }
+      }
+      return requests;
+    }
+
+    /**
+     * Drop the gaps in front of the head, growing the array if it is still over half
+     * full.
+     */
+    private void makeRoom() {
+      int live = tail - head;
+      long[] target = live > entries.length / 2 ? new long[entries.length << 1] : entries;
+      System.arraycopy(entries, head, target, 0, live);
+      entries = target;
+      base += head;
+      head = 0;
+      tail = live;
+    }
+
+    private static long key(int startFloor, int endFloor) {
+      return (long) startFloor << 32 | endFloor;
+    }
+  }
+}
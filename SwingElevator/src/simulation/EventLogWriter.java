@@ -0,0 +1,394 @@
+package simulation;
+
+import building.Building;
+import building.RequestLifecycleListener;
+import building.enums.Direction;
+import building.enums.ElevatorSystemStatus;
+import elevator.Elevator;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * Writes a compact, append-only binary log of a building. The log starts with the shape
+ * of the building and its full state, and then holds only what changed: per-elevator
+ * deltas of floor, direction, door, timers and stop bitset words each time the building
+ * steps, skips quiet steps, starts or stops, and every request lifecycle event as it
+ * happens. Numbers are written as variable-length integers into a reused buffer that
+ * goes to the file channel every flushInterval recorded updates or when it fills up, so
+ * recording allocates nothing per step. EventLogReader rebuilds the BuildingReport at
+ * any tick from the log. The writer registers itself as the request listener of the
+ * building, and must only be used on the simulation thread.
+ */
+public class EventLogWriter implements RequestLifecycleListener, Closeable {
+  /**
+   * The first bytes of an event log, "ELVLOG01" in ASCII.
+   */
+  public static final long MAGIC = 0x454C564C4F473031L;
+
+  static final int TICK = 1;
+  static final int STATUS = 2;
+  static final int QUEUED = 3;
+  static final int ASSIGNED = 4;
+  static final int PICKED_UP = 5;
+  static final int DELIVERED = 6;
+  static final int CLEARED = 7;
+
+  /**
+   * Marks an elevator record. The low six bits of its type byte say what changed.
+   */
+  static final int CAR = 1 << 6;
+
+  static final int FLOOR_CHANGED = 1;
+  static final int DIRECTION_CHANGED = 1 << 1;
+  static final int FLAGS_CHANGED = 1 << 2;
+  static final int DOOR_TIMER_CHANGED = 1 << 3;
+  static final int WAIT_TIMER_CHANGED = 1 << 4;
+  static final int STOPS_CHANGED = 1 << 5;
+  static final int ALL_CHANGED = (1 << 6) - 1;
+
+  static final int DOOR_CLOSED = 1;
+  static final int OUT_OF_SERVICE = 1 << 1;
+  static final int TAKING_REQUESTS = 1 << 2;
+
+  private static final int DEFAULT_FLUSH_INTERVAL = 256;
+
+  private final Building building;
+  private final List<Elevator> elevators;
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private final int flushInterval;
+  private final int words;
+  private final int[] floors;
+  private final Direction[] directions;
+  private final int[] flags;
+  private final int[] doorTimers;
+  private final int[] waitTimers;
+  private final long[] stopWords;
+  private final long[] scratch;
+  private ElevatorSystemStatus status;
+  private long lastTick;
+  private int unflushedSteps;
+  private long bytesWritten;
+
+  /**
+   * Creates a log for a building, flushing every 256 recorded updates.
+   *
+   * @param target   the file to create or replace.
+   * @param building the building to log.
+   * @throws IOException if the file can't be written.
+   */
+  public EventLogWriter(Path target, Building building) throws IOException {
+    this(target, building, DEFAULT_FLUSH_INTERVAL);
+  }
+
+  /**
+   * Creates a log for a building and writes its current state.
+   *
+   * @param target        the file to create or replace.
+   * @param building      the building to log.
+   * @param flushInterval the number of recorded updates between writes to the file.
+   * @throws IOException if the file can't be written.
+   * @throws IllegalArgumentException if building is null or flushInterval is not
+   *         positive.
+   */
+  public EventLogWriter(Path target, Building building, int flushInterval)
+      throws IOException {
+    if (building == null) {
+      throw new IllegalArgumentException("Building can't be null.");
+    }
+    if (flushInterval < 1) {
+      throw new IllegalArgumentException("Flush interval must be positive.");
+    }
+    this.building = building;
+    this.elevators = building.getElevators();
+    this.flushInterval = flushInterval;
+
+    int count = elevators.size();
+    this.words = count == 0 ? 0 : elevators.get(0).getStopWordCount();
+    this.floors = new int[count];
+    this.directions = new Direction[count];
+    this.flags = new int[count];
+    this.doorTimers = new int[count];
+    this.waitTimers = new int[count];
+    this.stopWords = new long[count * words];
+    this.scratch = new long[words];
+    // one full car record must always fit
+    this.buffer = ByteBuffer.allocate(Math.max(1 << 16, 64 + words * 16));
+
+    // reading the queues moves requests still in the inbox into them first
+    List<Request> up = new ArrayList<>(building.getUpRequest());
+    List<Request> down = new ArrayList<>(building.getDownRequest());
+    this.channel = FileChannel.open(target, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+    lastTick = building.getStepCount();
+    status = building.getStatus();
+    buffer.putLong(MAGIC);
+    putVarLong(building.getNumberOfFloors());
+    putVarLong(count);
+    putVarLong(building.getElevatorCapacity());
+    putVarLong(lastTick);
+    for (Elevator elevator : elevators) {
+      ensure(5);
+      putVarLong(elevator.getElevatorId());
+    }
+
+    buffer.put((byte) STATUS);
+    buffer.put((byte) status.ordinal());
+    for (int i = 0; i < count; i++) {
+      recordCar(i, true);
+    }
+    queueAll(up);
+    queueAll(down);
+
+    building.setRequestListener(this);
+  }
+
+  /**
+   * Append what changed in the building since it was last recorded. The building calls
+   * this after every step, every run of skipped quiet steps and every start or stop, so
+   * stepping and advancing are both logged; a skipped run is logged as one tick with the
+   * car changes over the whole run.
+   *
+   * @param tick the current step of the building.
+   * @throws UncheckedIOException if the log can't be written.
+   */
+  @Override
+  public void buildingUpdated(long tick) {
+    try {
+      record(tick);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void record(long tick) throws IOException {
+    mark(tick);
+
+    ElevatorSystemStatus now = building.getStatus();
+    if (now != status) {
+      status = now;
+      ensure(2);
+      buffer.put((byte) STATUS);
+      buffer.put((byte) now.ordinal());
+    }
+    for (int i = 0; i < floors.length; i++) {
+      recordCar(i, false);
+    }
+
+    if (++unflushedSteps >= flushInterval) {
+      flush();
+    }
+  }
+
+  /**
+   * Write everything recorded so far to the file.
+   *
+   * @throws IOException if the log can't be written.
+   */
+  public void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      bytesWritten += channel.write(buffer);
+    }
+    buffer.clear();
+    unflushedSteps = 0;
+  }
+
+  /**
+   * Get the number of bytes written to the file so far.
+   *
+   * @return the size of the log on disk.
+   */
+  public long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  /**
+   * Flush the log, close the file and stop listening to the building.
+   *
+   * @throws IOException if the log can't be written.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      if (channel.isOpen()) {
+        flush();
+      }
+    } finally {
+      if (building.getRequestListener() == this) {
+        building.setRequestListener(null);
+      }
+      channel.close();
+    }
+  }
+
+  @Override
+  public void requestQueued(int startFloor, int endFloor, long tick) {
+    writeEvent(QUEUED, -1, startFloor, endFloor, tick);
+  }
+
+  @Override
+  public void requestAssigned(int elevator, int startFloor, int endFloor, long tick) {
+    writeEvent(ASSIGNED, elevator, startFloor, endFloor, tick);
+  }
+
+  @Override
+  public void requestPickedUp(int elevator, int startFloor, int endFloor, long tick) {
+    writeEvent(PICKED_UP, elevator, startFloor, endFloor, tick);
+  }
+
+  @Override
+  public void requestDelivered(int elevator, int startFloor, int endFloor, long tick) {
+    writeEvent(DELIVERED, elevator, startFloor, endFloor, tick);
+  }
+
+  @Override
+  public void requestsCleared(long tick) {
+    mark(tick);
+    ensure(1);
+    buffer.put((byte) CLEARED);
+  }
+
+  private void writeEvent(int type, int elevator, int startFloor, int endFloor, long tick) {
+    mark(tick);
+    ensure(16);
+    buffer.put((byte) type);
+    if (elevator >= 0) {
+      putVarLong(elevator);
+    }
+    putVarLong(startFloor);
+    putVarLong(endFloor);
+  }
+
+  private void queueAll(List<Request> requests) {
+    for (Request request : requests) {
+      requestQueued(request.getStartFloor(), request.getEndFloor(), lastTick);
+    }
+  }
+
+  /**
+   * Move the log to a later tick, if it is not there yet.
+   */
+  private void mark(long tick) {
+    if (tick != lastTick) {
+      ensure(11);
+      buffer.put((byte) TICK);
+      putVarLong(tick - lastTick);
+      lastTick = tick;
+    }
+  }
+
+  /**
+   * Compare an elevator with what was last written for it, and write what changed.
+   */
+  private void recordCar(int i, boolean full) {
+    Elevator elevator = elevators.get(i);
+    int floor = elevator.getCurrentFloor();
+    Direction direction = elevator.getDirection();
+    int flag = (elevator.isDoorClosed() ? DOOR_CLOSED : 0)
+        | (elevator.isOutOfService() ? OUT_OF_SERVICE : 0)
+        | (elevator.isTakingRequests() ? TAKING_REQUESTS : 0);
+    int doorTimer = elevator.getDoorOpenTimeLeft();
+    int waitTimer = elevator.getStopWaitTimeLeft();
+    elevator.copyStopWords(scratch, 0);
+
+    int changes = full ? ALL_CHANGED : 0;
+    if (floor != floors[i]) {
+      changes |= FLOOR_CHANGED;
+    }
+    if (direction != directions[i]) {
+      changes |= DIRECTION_CHANGED;
+    }
+    if (flag != flags[i]) {
+      changes |= FLAGS_CHANGED;
+    }
+    if (doorTimer != doorTimers[i]) {
+      changes |= DOOR_TIMER_CHANGED;
+    }
+    if (waitTimer != waitTimers[i]) {
+      changes |= WAIT_TIMER_CHANGED;
+    }
+    int changedWords = 0;
+    for (int w = 0; w < words; w++) {
+      if (full || scratch[w] != stopWords[i * words + w]) {
+        changedWords++;
+      }
+    }
+    if (changedWords > 0) {
+      changes |= STOPS_CHANGED;
+    }
+    if (changes == 0) {
+      return;
+    }
+
+    ensure(32 + words * 16);
+    buffer.put((byte) (CAR | changes));
+    putVarLong(i);
+    if ((changes & FLOOR_CHANGED) != 0) {
+      floors[i] = floor;
+      putVarLong(floor);
+    }
+    if ((changes & DIRECTION_CHANGED) != 0) {
+      directions[i] = direction;
+      buffer.put((byte) direction.ordinal());
+    }
+    if ((changes & FLAGS_CHANGED) != 0) {
+      flags[i] = flag;
+      buffer.put((byte) flag);
+    }
+    if ((changes & DOOR_TIMER_CHANGED) != 0) {
+      doorTimers[i] = doorTimer;
+      putVarLong(doorTimer);
+    }
+    if ((changes & WAIT_TIMER_CHANGED) != 0) {
+      waitTimers[i] = waitTimer;
+      putVarLong(waitTimer);
+    }
+    if ((changes & STOPS_CHANGED) != 0) {
+      putVarLong(changedWords);
+      for (int w = 0; w < words; w++) {
+        if (full || scratch[w] != stopWords[i * words + w]) {
+          stopWords[i * words + w] = scratch[w];
+          putVarLong(w);
+          putVarLong(scratch[w]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Make room for a record, writing the buffer out if it is too full.
+   */
+  private void ensure(int bytes) {
+    if (buffer.remaining() < bytes) {
+      try {
+        int steps = unflushedSteps;
+        flush();
+        unflushedSteps = steps;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * Write an unsigned LEB128 integer, 7 bits per byte.
+   */
+  private void putVarLong(long value) {
+    long rest = value;
+    while ((rest & ~0x7FL) != 0) {
+      buffer.put((byte) ((rest & 0x7F) | 0x80));
+      rest >>>= 7;
+    }
+    buffer.put((byte) rest);
+  }
+}
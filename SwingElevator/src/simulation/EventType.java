@@ -0,0 +1,32 @@
+package simulation;
+
+/**
+ * The kinds of events handled by the discrete-event engine. Events that happen on the
+ * same tick are handled in this order.
+ */
+public enum EventType {
+  /**
+   * A request from the request source reaches the building.
+   */
+  REQUEST_ARRIVAL,
+
+  /**
+   * The building hands waiting requests to its elevators.
+   */
+  REQUEST_DISPATCH,
+
+  /**
+   * An elevator reaches a floor where it stops, turns around or parks.
+   */
+  FLOOR_ARRIVAL,
+
+  /**
+   * The door of an elevator closes.
+   */
+  DOOR_CLOSE,
+
+  /**
+   * An elevator finishes waiting at the top or bottom floor.
+   */
+  WAIT_EXPIRY
+}
@@ -0,0 +1,282 @@
+package simulation;
+
+import building.Building;
+import building.BuildingLimits;
+import building.dispatch.DispatchStrategy;
+import building.dispatch.TerminalDispatchStrategy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a headless simulation for every configuration of a grid of building shapes and
+ * traffic profiles, spread over a work-stealing pool. Every configuration gets its own
+ * building, request source and engine, so runs share nothing and finish in any order.
+ * Results are handed to a listener as each configuration finishes. A sweep can be
+ * cancelled from any thread: configurations that have not started are skipped and
+ * running ones stop at their next check, every 10,000 steps.
+ */
+public class ParameterSweep {
+  /**
+   * The number of steps a configuration runs between checks for cancellation.
+   */
+  private static final long CANCEL_CHECK_STEPS = 10_000;
+
+  private static final SweepListener NO_LISTENER = (configuration, result, done, total) -> {
+  };
+
+  private final List<SweepConfiguration> configurations;
+  private final long steps;
+  private final BuildingLimits limits;
+  private final SimulationResult[] results;
+  private final AtomicBoolean started = new AtomicBoolean();
+  private final Object listenerLock = new Object();
+  private DispatchStrategy dispatchStrategy = new TerminalDispatchStrategy();
+  private SweepListener listener = NO_LISTENER;
+  private volatile boolean cancelled;
+  private volatile int completed;
+
+  /**
+   * Creates a sweep of buildings within the standard limits.
+   *
+   * @param configurations the configurations to run.
+   * @param steps          the number of steps to run each configuration for.
+   * @throws IllegalArgumentException if configurations is null or holds null or a
+   *         building outside the standard limits, or steps is negative.
+   */
+  public ParameterSweep(List<SweepConfiguration> configurations, long steps) {
+    this(configurations, steps, BuildingLimits.STANDARD);
+  }
+
+  /**
+   * Creates a sweep of buildings within custom limits.
+   *
+   * @param configurations the configurations to run.
+   * @param steps          the number of steps to run each configuration for.
+   * @param limits         the allowed range of floors, elevators and capacity.
+   * @throws IllegalArgumentException if an argument is null, configurations holds null
+   *         or a building outside the limits, or steps is negative.
+   */
+  public ParameterSweep(List<SweepConfiguration> configurations, long steps,
+                        BuildingLimits limits) {
+    if (configurations == null || limits == null) {
+      throw new IllegalArgumentException("Configurations and limits can't be null.");
+    }
+    if (steps < 0) {
+      throw new IllegalArgumentException("Number of steps can't be negative.");
+    }
+    for (int i = 0; i < configurations.size(); i++) {
+      SweepConfiguration configuration = configurations.get(i);
+      if (configuration == null) {
+        throw new IllegalArgumentException("Configuration " + i + " is null.");
+      }
+      if (!fits(configuration, limits)) {
+        throw new IllegalArgumentException("Configuration " + i + " (" + configuration
+            + ") is outside the building limits.");
+      }
+    }
+
+    this.configurations = new ArrayList<>(configurations);
+    this.steps = steps;
+    this.limits = limits;
+    this.results = new SimulationResult[configurations.size()];
+  }
+
+  /**
+   * Build every combination of the given values, with floors varying slowest and
+   * profiles fastest. Every configuration of a profile uses the same seed, so building
+   * shapes are compared on the same traffic.
+   *
+   * @param floors     the numbers of floors.
+   * @param elevators  the numbers of elevators.
+   * @param capacities the elevator capacities.
+   * @param profiles   the traffic profiles.
+   * @param seed       the seed of the traffic.
+   * @return the configurations.
+   * @throws IllegalArgumentException if an argument is null or profiles holds null.
+   */
+  public static List<SweepConfiguration> grid(int[] floors, int[] elevators,
+                                              int[] capacities, List<TrafficProfile> profiles,
+                                              long seed) {
+    if (floors == null || elevators == null || capacities == null || profiles == null) {
+      throw new IllegalArgumentException("Grid values can't be null.");
+    }
+    List<SweepConfiguration> grid = new ArrayList<>(
+        floors.length * elevators.length * capacities.length * profiles.size());
+    for (int floor : floors) {
+      for (int elevator : elevators) {
+        for (int capacity : capacities) {
+          for (TrafficProfile profile : profiles) {
+            grid.add(new SweepConfiguration(floor, elevator, capacity, profile, seed));
+          }
+        }
+      }
+    }
+    return grid;
+  }
+
+  /**
+   * Set the policy every building of the sweep dispatches with. The one instance is
+   * shared by runs on different threads, so it must keep no state between dispatches.
+   * The default is TerminalDispatchStrategy.
+   *
+   * @param strategy the dispatch strategy.
+   * @throws IllegalArgumentException if strategy is null.
+   */
+  public void setDispatchStrategy(DispatchStrategy strategy) {
+    if (strategy == null) {
+      throw new IllegalArgumentException("Dispatch strategy can't be null.");
+    }
+    this.dispatchStrategy = strategy;
+  }
+
+  /**
+   * Run every configuration on the common pool and wait for the sweep to end.
+   *
+   * @param listener the listener told about each finished configuration, or null.
+   * @return the results in configuration order, null for configurations skipped by
+   *         cancellation.
+   * @throws IllegalStateException if the sweep has already been run.
+   */
+  public SimulationResult[] run(SweepListener listener) {
+    return run(ForkJoinPool.commonPool(), listener);
+  }
+
+  /**
+   * Run every configuration on a pool and wait for the sweep to end. An exception thrown
+   * by a run or by the listener cancels the rest of the sweep and is rethrown here.
+   *
+   * @param pool     the pool to run configurations on.
+   * @param listener the listener told about each finished configuration, or null.
+   * @return the results in configuration order, null for configurations skipped by
+   *         cancellation.
+   * @throws IllegalArgumentException if pool is null.
+   * @throws IllegalStateException if the sweep has already been run.
+   */
+  public SimulationResult[] run(ForkJoinPool pool, SweepListener listener) {
+    if (pool == null) {
+      throw new IllegalArgumentException("Pool can't be null.");
+    }
+    if (!started.compareAndSet(false, true)) {
+      throw new IllegalStateException("Sweep has already been run.");
+    }
+    this.listener = listener == null ? NO_LISTENER : listener;
+
+    if (!configurations.isEmpty()) {
+      pool.invoke(new SweepTask(0, configurations.size()));
+    }
+    return results.clone();
+  }
+
+  /**
+   * Stop the sweep as soon as possible. It may be called from any thread, including
+   * the listener.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Get the number of configurations that have finished so far.
+   *
+   * @return the number of finished configurations.
+   */
+  public int getCompleted() {
+    return completed;
+  }
+
+  public int getTotal() {
+    return configurations.size();
+  }
+
+  public long getSteps() {
+    return steps;
+  }
+
+  private static boolean fits(SweepConfiguration configuration, BuildingLimits limits) {
+    return configuration.getNumberOfFloors() >= limits.getMinFloors()
+        && configuration.getNumberOfFloors() <= limits.getMaxFloors()
+        && configuration.getNumberOfElevators() >= limits.getMinElevators()
+        && configuration.getNumberOfElevators() <= limits.getMaxElevators()
+        && configuration.getElevatorCapacity() >= limits.getMinCapacity()
+        && configuration.getElevatorCapacity() <= limits.getMaxCapacity();
+  }
+
+  /**
+   * Run one configuration to the end, checking for cancellation between chunks of
+   * steps, and hand its result to the listener.
+   */
+  private void runConfiguration(int index) {
+    if (cancelled) {
+      return;
+    }
+    SweepConfiguration configuration = configurations.get(index);
+    Building building = new Building(configuration.getNumberOfFloors(),
+        configuration.getNumberOfElevators(), configuration.getElevatorCapacity(), limits);
+    building.setDispatchStrategy(dispatchStrategy);
+    SimulationEngine engine = new SimulationEngine(building, configuration.getProfile()
+        .createSource(configuration.getNumberOfFloors(), configuration.getSeed()));
+
+    // the chunks add up to one result; pending requests and latencies cover every chunk
+    SimulationResult last = engine.run(0);
+    long submitted = 0;
+    long rejected = 0;
+    long elapsed = 0;
+    while (engine.getTick() < steps) {
+      if (cancelled) {
+        return;
+      }
+      last = engine.run(Math.min(CANCEL_CHECK_STEPS, steps - engine.getTick()));
+      submitted += last.getSubmittedRequests();
+      rejected += last.getRejectedRequests();
+      elapsed += last.getElapsedNanos();
+    }
+    SimulationResult result = new SimulationResult(steps, submitted, rejected,
+        last.getPendingRequests(), elapsed, last.getFinalReport(), last.getLatency());
+    results[index] = result;
+
+    synchronized (listenerLock) {
+      // counted under the lock so the listener sees progress in order
+      completed++;
+      listener.configurationFinished(configuration, result, completed, results.length);
+    }
+  }
+
+  /**
+   * Runs a contiguous range of configurations, splitting the range until it holds one,
+   * so idle workers steal whatever is left.
+   */
+  private final class SweepTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+
+    SweepTask(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        try {
+          runConfiguration(from);
+        } catch (RuntimeException | Error e) {
+          cancelled = true;
+          throw e;
+        }
+        return;
+      }
+
+      int middle = (from + to) >>> 1;
+      invokeAll(new SweepTask(from, middle), new SweepTask(middle, to));
+    }
+  }
+}
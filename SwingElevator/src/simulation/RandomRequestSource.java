@@ -0,0 +1,89 @@
+package simulation;
+
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import scanerzus.Request;
+
+/**
+ * A request source that generates uniformly random trips at a fixed average arrival rate.
+ * Arrivals follow a Poisson process, so several requests may share a tick when the rate
+ * is high. The same seed always produces the same stream.
+ */
+public class RandomRequestSource implements RequestSource {
+  private final int numberOfFloors;
+  private final double arrivalRate;
+  private final long limit;
+  private final SplittableRandom random;
+  private double arrivalTime;
+  private long produced;
+
+  /**
+   * Creates an unbounded random request source.
+   *
+   * @param numberOfFloors the number of floors requests are drawn from.
+   * @param arrivalRate    the average number of requests per step.
+   * @param seed           the seed of the random generator.
+   * @throws IllegalArgumentException if there are fewer than 2 floors or the rate is
+   *         not positive.
+   */
+  public RandomRequestSource(int numberOfFloors, double arrivalRate, long seed) {
+    this(numberOfFloors, arrivalRate, seed, Long.MAX_VALUE);
+  }
+
+  /**
+   * Creates a random request source that stops after a number of requests.
+   *
+   * @param numberOfFloors the number of floors requests are drawn from.
+   * @param arrivalRate    the average number of requests per step.
+   * @param seed           the seed of the random generator.
+   * @param limit          the total number of requests to produce.
+   * @throws IllegalArgumentException if there are fewer than 2 floors, the rate is
+   *         not positive or the limit is negative.
+   */
+  public RandomRequestSource(int numberOfFloors, double arrivalRate, long seed, long limit) {
+    if (numberOfFloors < 2) {
+      throw new IllegalArgumentException("Number of floors must be at least 2.");
+    }
+    if (!(arrivalRate > 0)) {
+      throw new IllegalArgumentException("Arrival rate must be positive.");
+    }
+    if (limit < 0) {
+      throw new IllegalArgumentException("Limit can't be negative.");
+    }
+
+    this.numberOfFloors = numberOfFloors;
+    this.arrivalRate = arrivalRate;
+    this.limit = limit;
+    this.random = new SplittableRandom(seed);
+    this.arrivalTime = nextGap();
+  }
+
+  @Override
+  public long nextTick() {
+    if (produced >= limit) {
+      return Long.MAX_VALUE;
+    }
+    return (long) arrivalTime;
+  }
+
+  @Override
+  public Request next() {
+    if (produced >= limit) {
+      throw new NoSuchElementException("Request source is exhausted.");
+    }
+
+    int startFloor = random.nextInt(numberOfFloors);
+    int endFloor = random.nextInt(numberOfFloors - 1);
+    if (endFloor >= startFloor) {
+      endFloor++;
+    }
+
+    produced++;
+    arrivalTime += nextGap();
+    return new Request(startFloor, endFloor);
+  }
+
+  private double nextGap() {
+    return -Math.log(1.0 - random.nextDouble()) / arrivalRate;
+  }
+}
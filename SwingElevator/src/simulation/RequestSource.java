@@ -0,0 +1,23 @@
+package simulation;
+
+import scanerzus.Request;
+
+/**
+ * This interface represents a time-ordered stream of requests fed to a simulation.
+ */
+public interface RequestSource {
+  /**
+   * Get the tick at which the next request arrives.
+   *
+   * @return the tick of the next request, or Long.MAX_VALUE if the source is exhausted.
+   */
+  long nextTick();
+
+  /**
+   * Take the next request from the source.
+   *
+   * @return the next request.
+   * @throws java.util.NoSuchElementException if the source is exhausted.
+   */
+  Request next();
+}
@@ -0,0 +1,94 @@
+package simulation;
+
+import building.BuildingInterface;
+import building.enums.ElevatorSystemStatus;
+
+/**
+ * A headless driver that steps a building as fast as possible while feeding it requests
+ * from a request source. Nothing in here touches Swing, so it can be used for batch and
+ * capacity-planning runs.
+ */
+public class SimulationEngine {
+  private final BuildingInterface building;
+  private final RequestSource source;
+  private long tick;
+  private long submittedRequests;
+  private long rejectedRequests;
+
+  /**
+   * Creates an engine for the given building and request source.
+   *
+   * @param building the building to simulate.
+   * @param source   the requests to feed into the building.
+   * @throws IllegalArgumentException if either argument is null.
+   */
+  public SimulationEngine(BuildingInterface building, RequestSource source) {
+    if (building == null || source == null) {
+      throw new IllegalArgumentException("Building and request source can't be null.");
+    }
+    this.building = building;
+    this.source = source;
+  }
+
+  /**
+   * Run the building for a number of steps. Requests whose tick has been reached are
+   * added before each step, and the building is advanced straight to the next arrival.
+   * The building is started first if it is out of service. Calling run again continues
+   * from where the previous run stopped.
+   *
+   * @param steps the number of steps to run.
+   * @return the aggregate results of this run.
+   * @throws IllegalArgumentException if steps is negative.
+   */
+  public SimulationResult run(long steps) {
+    if (steps < 0) {
+      throw new IllegalArgumentException("Number of steps can't be negative.");
+    }
+
+    if (building.getStatus() == ElevatorSystemStatus.outOfService) {
+      building.startElevatorSystem();
+    }
+
+    long submittedBefore = submittedRequests;
+    long rejectedBefore = rejectedRequests;
+    long start = System.nanoTime();
+    long end = tick + steps;
+
+    while (tick < end) {
+      while (source.nextTick() <= tick) {
+        submit();
+      }
+      // run straight to the next arrival, letting the building skip quiet stretches
+      long next = Math.min(source.nextTick(), end);
+      building.advanceElevatorSystem(next - tick);
+      tick = next;
+    }
+
+    long elapsed = System.nanoTime() - start;
+    return new SimulationResult(steps,
+        submittedRequests - submittedBefore,
+        rejectedRequests - rejectedBefore,
+        building.getUpRequest().size() + building.getDownRequest().size(),
+        elapsed,
+        building.getElevatorSystemStatus(),
+        building.getLatencyMetrics());
+  }
+
+  /**
+   * Get the number of steps this engine has run so far.
+   *
+   * @return the current tick of the engine.
+   */
+  public long getTick() {
+    return tick;
+  }
+
+  private void submit() {
+    try {
+      building.addRequest(source.next());
+      submittedRequests++;
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      rejectedRequests++;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package simulation;
+
+/**
+ * A timestamped event of the discrete-event engine.
+ */
+public final class SimulationEvent implements Comparable<SimulationEvent> {
+  private final long tick;
+  private final EventType type;
+  private final int elevator;
+
+  /**
+   * Creates a new event.
+   *
+   * @param tick     the tick the event happens at.
+   * @param type     the kind of event.
+   * @param elevator the index of the elevator the event belongs to, or -1 for events
+   *                 of the building.
+   */
+  public SimulationEvent(long tick, EventType type, int elevator) {
+    this.tick = tick;
+    this.type = type;
+    this.elevator = elevator;
+  }
+
+  public long getTick() {
+    return tick;
+  }
+
+  public EventType getType() {
+    return type;
+  }
+
+  public int getElevator() {
+    return elevator;
+  }
+
+  @Override
+  public int compareTo(SimulationEvent other) {
+    int result = Long.compare(this.tick, other.tick);
+    if (result == 0) {
+      result = this.type.compareTo(other.type);
+    }
+    if (result == 0) {
+      result = Integer.compare(this.elevator, other.elevator);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return tick + ":" + type + (elevator < 0 ? "" : "[" + elevator + "]");
+  }
+}
@@ -0,0 +1,133 @@
+package simulation;
+
+import building.BuildingReport;
+import building.metrics.LatencyMetrics;
+
+/**
+ * This class holds the aggregate results of a headless simulation run.
+ */
+public class SimulationResult {
+  private final long steps;
+  private final long submittedRequests;
+  private final long rejectedRequests;
+  private final int pendingRequests;
+  private final long elapsedNanos;
+  private final BuildingReport finalReport;
+  private final LatencyMetrics latency;
+
+  /**
+   * This constructor is used to create a new SimulationResult object.
+   *
+   * @param steps             the number of steps that were run.
+   * @param submittedRequests the number of requests the building accepted.
+   * @param rejectedRequests  the number of requests the building refused.
+   * @param pendingRequests   the number of requests still waiting for an elevator.
+   * @param elapsedNanos      the wall-clock time of the run in nanoseconds.
+   * @param finalReport       the status of the building at the end of the run.
+   * @param latency           the wait and ride times of the building at the end of the run.
+   */
+  public SimulationResult(long steps,
+                          long submittedRequests,
+                          long rejectedRequests,
+                          int pendingRequests,
+                          long elapsedNanos,
+                          BuildingReport finalReport,
+                          LatencyMetrics latency) {
+    this.steps = steps;
+    this.submittedRequests = submittedRequests;
+    this.rejectedRequests = rejectedRequests;
+    this.pendingRequests = pendingRequests;
+    this.elapsedNanos = elapsedNanos;
+    this.finalReport = finalReport;
+    this.latency = latency;
+  }
+
+  /**
+   * This method is used to get the number of steps that were run.
+   *
+   * @return the number of steps.
+   */
+  public long getSteps() {
+    return steps;
+  }
+
+  /**
+   * This method is used to get the number of requests the building accepted.
+   *
+   * @return the number of accepted requests.
+   */
+  public long getSubmittedRequests() {
+    return submittedRequests;
+  }
+
+  /**
+   * This method is used to get the number of requests the building refused.
+   *
+   * @return the number of rejected requests.
+   */
+  public long getRejectedRequests() {
+    return rejectedRequests;
+  }
+
+  /**
+   * This method is used to get the number of requests still waiting at the end of the run.
+   *
+   * @return the number of pending requests.
+   */
+  public int getPendingRequests() {
+    return pendingRequests;
+  }
+
+  /**
+   * This method is used to get the wall-clock duration of the run.
+   *
+   * @return the duration in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * This method is used to get the simulation throughput.
+   *
+   * @return the number of steps per wall-clock second.
+   */
+  public double getStepsPerSecond() {
+    if (elapsedNanos == 0) {
+      return 0;
+    }
+    return steps * 1_000_000_000.0 / elapsedNanos;
+  }
+
+  /**
+   * This method is used to get the status of the building at the end of the run.
+   *
+   * @return the final building report.
+   */
+  public BuildingReport getFinalReport() {
+    return finalReport;
+  }
+
+  /**
+   * This method is used to get the wait and ride time histograms of the building at the
+   * end of the run. They cover every run of the building, not just this one.
+   *
+   * @return the latency metrics.
+   */
+  public LatencyMetrics getLatency() {
+    return latency;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d steps, %d submitted, %d rejected, %d pending, %.0f steps/s,"
+            + " wait p50/p95/p99 %d/%d/%d, ride p50/p95/p99 %d/%d/%d",
+        steps, submittedRequests, rejectedRequests, pendingRequests, getStepsPerSecond(),
+        latency.getWaitTimes().getValueAtPercentile(50),
+        latency.getWaitTimes().getValueAtPercentile(95),
+        latency.getWaitTimes().getValueAtPercentile(99),
+        latency.getRideTimes().getValueAtPercentile(50),
+        latency.getRideTimes().getValueAtPercentile(95),
+        latency.getRideTimes().getValueAtPercentile(99));
+  }
+}
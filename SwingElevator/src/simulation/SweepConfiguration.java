@@ -0,0 +1,62 @@
+package simulation;
+
+/**
+ * This class holds one point of a parameter sweep: the shape of a building, the traffic
+ * it runs against and the seed of that traffic.
+ */
+public final class SweepConfiguration {
+  private final int numberOfFloors;
+  private final int numberOfElevators;
+  private final int elevatorCapacity;
+  private final TrafficProfile profile;
+  private final long seed;
+
+  /**
+   * Creates a configuration. The building shape is checked against the limits of the
+   * sweep it is run in.
+   *
+   * @param numberOfFloors    the number of floors in the building.
+   * @param numberOfElevators the number of elevators in the building.
+   * @param elevatorCapacity  the capacity of the elevators in the building.
+   * @param profile           the traffic to run the building against.
+   * @param seed              the seed of the traffic.
+   * @throws IllegalArgumentException if profile is null.
+   */
+  public SweepConfiguration(int numberOfFloors, int numberOfElevators, int elevatorCapacity,
+                            TrafficProfile profile, long seed) {
+    if (profile == null) {
+      throw new IllegalArgumentException("Traffic profile can't be null.");
+    }
+    this.numberOfFloors = numberOfFloors;
+    this.numberOfElevators = numberOfElevators;
+    this.elevatorCapacity = elevatorCapacity;
+    this.profile = profile;
+    this.seed = seed;
+  }
+
+  public int getNumberOfFloors() {
+    return numberOfFloors;
+  }
+
+  public int getNumberOfElevators() {
+    return numberOfElevators;
+  }
+
+  public int getElevatorCapacity() {
+    return elevatorCapacity;
+  }
+
+  public TrafficProfile getProfile() {
+    return profile;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  @Override
+  public String toString() {
+    return numberOfFloors + " floors, " + numberOfElevators + " elevators, capacity "
+        + elevatorCapacity + ", " + profile.getName() + " traffic";
+  }
+}
@@ -0,0 +1,19 @@
+package simulation;
+
+/**
+ * This interface represents an observer of the configurations a parameter sweep finishes.
+ */
+public interface SweepListener {
+  /**
+   * Called once for every configuration that ran to the end, in the order they finish.
+   * Calls come from the threads of the sweep's pool but never overlap, so a listener
+   * doesn't have to be thread-safe. Throwing ends the sweep.
+   *
+   * @param configuration the configuration that finished.
+   * @param result        the results of its run.
+   * @param completed     the number of configurations finished so far, this one included.
+   * @param total         the number of configurations in the sweep.
+   */
+  void configurationFinished(SweepConfiguration configuration, SimulationResult result,
+                             int completed, int total);
+}
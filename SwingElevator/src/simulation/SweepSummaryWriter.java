@@ -0,0 +1,84 @@
+package simulation;
+
+import building.metrics.LatencyHistogram;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Streams the results of a parameter sweep as a CSV table, one row per configuration
+ * in the order they finish. The header is written when the writer is created and every
+ * row is flushed as soon as it is written, so a long sweep can be followed while it
+ * runs. Latencies are in steps. A profile name holding a comma, quote or line break is
+ * quoted, with its quotes doubled, as RFC 4180 does.
+ */
+public class SweepSummaryWriter implements SweepListener {
+  /**
+   * The header row of the table.
+   */
+  public static final String HEADER = "floors,elevators,capacity,profile,submitted,rejected,"
+      + "pending,wait_p50,wait_p95,wait_p99,ride_p50,ride_p95,ride_p99,millis";
+
+  private final Writer out;
+
+  /**
+   * Creates a writer and writes the header row. The writer does not close out.
+   *
+   * @param out where to write the table.
+   * @throws IOException if the header can't be written.
+   * @throws IllegalArgumentException if out is null.
+   */
+  public SweepSummaryWriter(Writer out) throws IOException {
+    if (out == null) {
+      throw new IllegalArgumentException("Writer can't be null.");
+    }
+    this.out = out;
+    out.write(HEADER);
+    out.write('\n');
+    out.flush();
+  }
+
+  /**
+   * Write the row of a finished configuration.
+   *
+   * @throws UncheckedIOException if the row can't be written, which ends the sweep.
+   */
+  @Override
+  public void configurationFinished(SweepConfiguration configuration, SimulationResult result,
+                                    int completed, int total) {
+    StringBuilder row = new StringBuilder(96)
+        .append(configuration.getNumberOfFloors()).append(',')
+        .append(configuration.getNumberOfElevators()).append(',')
+        .append(configuration.getElevatorCapacity()).append(',');
+    appendField(row, configuration.getProfile().getName());
+    row.append(',')
+        .append(result.getSubmittedRequests()).append(',')
+        .append(result.getRejectedRequests()).append(',')
+        .append(result.getPendingRequests());
+    appendPercentiles(row, result.getLatency().getWaitTimes());
+    appendPercentiles(row, result.getLatency().getRideTimes());
+    row.append(',').append(result.getElapsedNanos() / 1_000_000).append('\n');
+
+    try {
+      out.write(row.toString());
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void appendField(StringBuilder row, String field) {
+    if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0
+        && field.indexOf('\r') < 0) {
+      row.append(field);
+      return;
+    }
+    row.append('"').append(field.replace("\"", "\"\"")).append('"');
+  }
+
+  private static void appendPercentiles(StringBuilder row, LatencyHistogram histogram) {
+    row.append(',').append(histogram.getValueAtPercentile(50))
+        .append(',').append(histogram.getValueAtPercentile(95))
+        .append(',').append(histogram.getValueAtPercentile(99));
+  }
+}
@@ -0,0 +1,325 @@
+package simulation;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import scanerzus.Request;
+
+/**
+ * A request source that replays a recorded trace file. Each record is the tick a request
+ * arrived at plus its start and end floor, in non-decreasing tick order. Ticks are
+ * simulation steps and are replayed as they are, so a trace should count from 0: one
+ * recorded against a wall clock or another epoch must be rebased before it is replayed,
+ * or the engine steps an idle building up to its first record.
+ * Two formats are read:
+ * <ul>
+ *   <li>CSV, one "tick,startFloor,endFloor" record per line. Blank lines and lines
+ *   starting with '#' are skipped, as is a header: the first other line, if it starts
+ *   with a letter.</li>
+ *   <li>Binary, the 8 byte MAGIC followed by 16 byte big-endian records of a long tick and
+ *   two int floors. writeBinary produces this format.</li>
+ * </ul>
+ * The file is memory mapped one window at a time and parsed in place, so a trace of any
+ * length is replayed without being loaded whole or creating garbage per line.
+ * Malformed records are reported by nextTick with an IllegalStateException, so they are
+ * never mistaken for requests rejected by the building.
+ */
+public class TraceRequestSource implements RequestSource, Closeable {
+  /**
+   * The first bytes of a binary trace, "ELVTRACE" in ASCII.
+   */
+  public static final long MAGIC = 0x454C565452414345L;
+
+  private static final int RECORD_BYTES = 16;
+  private static final int DEFAULT_WINDOW = 64 << 20;
+
+  private final FileChannel channel;
+  private final long fileSize;
+  private final boolean binary;
+  private final int windowSize;
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long line;
+  private boolean headerChecked;
+  private boolean loaded;
+  private long tick = -1;
+  private int startFloor;
+  private int endFloor;
+  private long replayed;
+  private long number;
+
+  /**
+   * Opens a trace file, detecting its format from the first bytes.
+   *
+   * @param trace the path of the trace.
+   * @throws IOException if the file can't be opened.
+   */
+  public TraceRequestSource(Path trace) throws IOException {
+    this(trace, DEFAULT_WINDOW);
+  }
+
+  /**
+   * Opens a trace file with a given mapping window.
+   *
+   * @param trace      the path of the trace.
+   * @param windowSize the number of bytes mapped at a time, at least 64.
+   * @throws IOException if the file can't be opened.
+   * @throws IllegalArgumentException if the window is smaller than 64 bytes.
+   */
+  TraceRequestSource(Path trace, int windowSize) throws IOException {
+    if (trace == null) {
+      throw new IllegalArgumentException("Trace path can't be null.");
+    }
+    if (windowSize < 64) {
+      throw new IllegalArgumentException("Window size must be at least 64 bytes.");
+    }
+    this.channel = FileChannel.open(trace, StandardOpenOption.READ);
+    this.windowSize = windowSize;
+    try {
+      this.fileSize = channel.size();
+      map(0);
+      this.binary = fileSize >= Long.BYTES && window.getLong(0) == MAGIC;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    if (binary) {
+      window.position(Long.BYTES);
+    }
+  }
+
+  @Override
+  public long nextTick() {
+    if (!loaded) {
+      load();
+    }
+    return tick < 0 ? Long.MAX_VALUE : tick;
+  }
+
+  @Override
+  public Request next() {
+    if (nextTick() == Long.MAX_VALUE) {
+      throw new NoSuchElementException("Trace is exhausted.");
+    }
+    // the following record is parsed by the next call to nextTick
+    loaded = false;
+    replayed++;
+    return new Request(startFloor, endFloor);
+  }
+
+  /**
+   * Get the number of requests replayed so far.
+   *
+   * @return the number of requests taken from the trace.
+   */
+  public long getReplayed() {
+    return replayed;
+  }
+
+  @Override
+  public void close() throws IOException {
+    window = null;
+    channel.close();
+  }
+
+  /**
+   * Write every request of a source to a binary trace. The source must be bounded.
+   *
+   * @param source the requests to write.
+   * @param target the file to create or replace.
+   * @return the number of records written.
+   * @throws IOException if the file can't be written.
+   */
+  public static long writeBinary(RequestSource source, Path target) throws IOException {
+    long count = 0;
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(target), 1 << 16))) {
+      out.writeLong(MAGIC);
+      for (long at = source.nextTick(); at != Long.MAX_VALUE; at = source.nextTick()) {
+        Request request = source.next();
+        out.writeLong(at);
+        out.writeInt(request.getStartFloor());
+        out.writeInt(request.getEndFloor());
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private void load() {
+    long previous = tick;
+    boolean found = binary ? readRecord() : readLine();
+    loaded = true;
+    if (!found) {
+      tick = -1;
+      return;
+    }
+    if (tick < 0 || tick < previous) {
+      throw new IllegalStateException(where() + "tick " + tick
+          + " is negative or earlier than the one before.");
+    }
+  }
+
+  private boolean readRecord() {
+    if (window.remaining() < RECORD_BYTES) {
+      long position = windowStart + window.position();
+      if (fileSize - position < RECORD_BYTES) {
+        if (position != fileSize) {
+          throw new IllegalStateException("Binary trace ends with a partial record.");
+        }
+        return false;
+      }
+      map(position);
+    }
+    line++;
+    tick = window.getLong();
+    startFloor = window.getInt();
+    endFloor = window.getInt();
+    return true;
+  }
+
+  private boolean readLine() {
+    while (true) {
+      int lineStart = window.position();
+      int end = findLineEnd(lineStart);
+      if (end < 0) {
+        long position = windowStart + lineStart;
+        if (position == fileSize) {
+          return false;
+        }
+        if (windowStart + window.limit() < fileSize) {
+          if (lineStart == 0) {
+            throw new IllegalStateException(where() + "line is longer than the window.");
+          }
+          // the line runs past this window, map again from its start
+          map(position);
+          continue;
+        }
+        end = window.limit();
+      }
+      line++;
+      window.position(Math.min(end + 1, window.limit()));
+      if (parseLine(lineStart, end)) {
+        return true;
+      }
+    }
+  }
+
+  private int findLineEnd(int from) {
+    for (int i = from; i < window.limit(); i++) {
+      if (window.get(i) == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Parse a CSV line into the record fields.
+   *
+   * @return false if the line is blank, a comment or the header.
+   */
+  private boolean parseLine(int from, int to) {
+    int i = skipBlanks(from, to);
+    if (i == to || window.get(i) == '#') {
+      return false;
+    }
+    if (!headerChecked) {
+      headerChecked = true;
+      if (Character.isLetter(window.get(i))) {
+        return false;
+      }
+    }
+
+    i = parseNumber(i, to, true);
+    tick = number;
+    i = parseNumber(i, to, true);
+    startFloor = toFloor(number);
+    i = parseNumber(i, to, false);
+    endFloor = toFloor(number);
+    if (skipBlanks(i, to) != to) {
+      throw new IllegalStateException(where() + "expected 3 fields.");
+    }
+    return true;
+  }
+
+  /**
+   * Parse a decimal field into number.
+   *
+   * @return the index after the field and its comma.
+   */
+  private int parseNumber(int from, int to, boolean comma) {
+    int i = skipBlanks(from, to);
+    boolean negative = i < to && window.get(i) == '-';
+    if (negative) {
+      i++;
+    }
+    int digits = i;
+    long result = 0;
+    while (i < to) {
+      byte b = window.get(i);
+      if (b < '0' || b > '9') {
+        break;
+      }
+      if (result > (Long.MAX_VALUE - (b - '0')) / 10) {
+        throw new IllegalStateException(where() + "number is too large.");
+      }
+      result = result * 10 + (b - '0');
+      i++;
+    }
+    if (i == digits) {
+      throw new IllegalStateException(where() + "expected a number.");
+    }
+    number = negative ? -result : result;
+
+    i = skipBlanks(i, to);
+    if (comma) {
+      if (i == to || window.get(i) != ',') {
+        throw new IllegalStateException(where() + "expected 3 fields.");
+      }
+      i++;
+    }
+    return i;
+  }
+
+  private int skipBlanks(int from, int to) {
+    int i = from;
+    while (i < to) {
+      byte b = window.get(i);
+      if (b != ' ' && b != '\t' && b != '\r') {
+        break;
+      }
+      i++;
+    }
+    return i;
+  }
+
+  private int toFloor(long value) {
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      throw new IllegalStateException(where() + "floor is out of range.");
+    }
+    return (int) value;
+  }
+
+  private String where() {
+    return "Trace record " + line + ": ";
+  }
+
+  private void map(long position) {
+    try {
+      long size = Math.min(windowSize, fileSize - position);
+      window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+      windowStart = position;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
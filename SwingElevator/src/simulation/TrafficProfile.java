@@ -0,0 +1,52 @@
+package simulation;
+
+/**
+ * This interface represents a named kind of traffic a parameter sweep runs every building
+ * shape against. It creates a new request source for each run, so runs on different
+ * threads never share one.
+ */
+public interface TrafficProfile {
+  /**
+   * Get the name of the profile, as shown in sweep results.
+   *
+   * @return the name.
+   */
+  String getName();
+
+  /**
+   * Create a new request source for a building.
+   *
+   * @param numberOfFloors the number of floors of the building.
+   * @param seed           the seed for any randomness in the source.
+   * @return a new request source.
+   */
+  RequestSource createSource(int numberOfFloors, long seed);
+
+  /**
+   * Create a profile of uniformly random trips at a fixed average arrival rate.
+   *
+   * @param name        the name of the profile.
+   * @param arrivalRate the average number of requests per step.
+   * @return the profile.
+   * @throws IllegalArgumentException if name is null or the rate is not positive.
+   */
+  static TrafficProfile uniform(String name, double arrivalRate) {
+    if (name == null) {
+      throw new IllegalArgumentException("Name can't be null.");
+    }
+    if (!(arrivalRate > 0)) {
+      throw new IllegalArgumentException("Arrival rate must be positive.");
+    }
+    return new TrafficProfile() {
+      @Override
+      public String getName() {
+        return name;
+      }
+
+      @Override
+      public RequestSource createSource(int numberOfFloors, long seed) {
+        return new RandomRequestSource(numberOfFloors, arrivalRate, seed);
+      }
+    };
+  }
+}
@@ -0,0 +1,121 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import building.enums.ElevatorSystemStatus;
+import elevator.Elevator;
+import org.junit.Test;
+import scanerzus.Request;
+import simulation.RandomRequestSource;
+
+/**
+ * A Junit test class for advancing the elevator system over several steps at once.
+ */
+public class AdvanceTest {
+
+  /**
+   * Test that advancing between request arrivals leaves the building in the same state
+   * as stepping one step at a time.
+   */
+  @Test
+  public void testAdvanceMatchesStepping() {
+    Building stepped = new Building(25, 6, 8);
+    Building advanced = new Building(25, 6, 8);
+    stepped.startElevatorSystem();
+    advanced.startElevatorSystem();
+
+    RandomRequestSource steppedSource = new RandomRequestSource(25, 0.05, 5L);
+    RandomRequestSource advancedSource = new RandomRequestSource(25, 0.05, 5L);
+
+    long tick = 0;
+    while (tick < 5_000) {
+      while (steppedSource.nextTick() <= tick) {
+        stepped.addRequest(steppedSource.next());
+        advanced.addRequest(advancedSource.next());
+      }
+      long next = Math.min(steppedSource.nextTick(), 5_000);
+      for (long t = tick; t < next; t++) {
+        stepped.stepElevatorSystem();
+      }
+      advanced.advanceElevatorSystem(next - tick);
+      tick = next;
+      assertSameState(stepped, advanced);
+    }
+    assertEquals(5_000, advanced.getStepCount());
+  }
+
+  /**
+   * Test that advancing a stopping building takes it out of service exactly like
+   * stepping does.
+   */
+  @Test
+  public void testAdvanceWhileStopping() {
+    Building stepped = new Building(20, 3, 5);
+    Building advanced = new Building(20, 3, 5);
+    stepped.startElevatorSystem();
+    advanced.startElevatorSystem();
+
+    for (Building building : new Building[] {stepped, advanced}) {
+      building.addRequest(new Request(2, 9));
+      building.addRequest(new Request(19, 4));
+      building.advanceElevatorSystem(7);
+      building.stopElevatorSystem();
+    }
+
+    for (int i = 0; i < 200; i++) {
+      stepped.stepElevatorSystem();
+    }
+    advanced.advanceElevatorSystem(200);
+
+    assertSameState(stepped, advanced);
+    assertEquals(ElevatorSystemStatus.outOfService, advanced.getStatus());
+    assertEquals(207, advanced.getStepCount());
+  }
+
+  /**
+   * Test that an idle building advances a large number of steps in quiet stretches, and
+   * that a building out of service advances any number of steps at once.
+   */
+  @Test(timeout = 5_000)
+  public void testAdvanceIdleBuilding() {
+    Building building = new Building(30, 10, 10);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 12));
+
+    building.advanceElevatorSystem(50_000_000L);
+
+    assertEquals(50_000_000L, building.getStepCount());
+    assertTrue(building.getUpRequest().isEmpty());
+
+    Building stopped = new Building(30, 10, 10);
+    stopped.advanceElevatorSystem(1_000_000_000_000L);
+    assertEquals(1_000_000_000_000L, stopped.getStepCount());
+  }
+
+  /**
+   * Test that a negative number of steps is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testAdvanceNegative() {
+    new Building(10, 2, 5).advanceElevatorSystem(-1);
+  }
+
+  private void assertSameState(Building expected, Building actual) {
+    assertEquals(expected.getStatus(), actual.getStatus());
+    assertEquals(expected.getUpRequest().size(), actual.getUpRequest().size());
+    assertEquals(expected.getDownRequest().size(), actual.getDownRequest().size());
+    for (int i = 0; i < expected.getNumberOfElevators(); i++) {
+      Elevator a = expected.getElevators().get(i);
+      Elevator b = actual.getElevators().get(i);
+      assertEquals(a.getCurrentFloor(), b.getCurrentFloor());
+      assertEquals(a.getDirection(), b.getDirection());
+      assertEquals(a.isDoorClosed(), b.isDoorClosed());
+      assertEquals(a.getDoorOpenTimeLeft(), b.getDoorOpenTimeLeft());
+      assertEquals(a.getStopWaitTimeLeft(), b.getStopWaitTimeLeft());
+      assertEquals(a.isTakingRequests(), b.isTakingRequests());
+      assertEquals(a.isOutOfService(), b.isOutOfService());
+      assertEquals(a.getElevatorStatus().getStopSet(), b.getElevatorStatus().getStopSet());
+    }
+  }
+}
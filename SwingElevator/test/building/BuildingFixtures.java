@@ -0,0 +1,61 @@
+package building;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.SplittableRandom;
+import scanerzus.Request;
+
+/**
+ * Helpers shared by the tests that copy a running building, by checkpoint or by fork,
+ * and compare the copy with the original.
+ */
+final class BuildingFixtures {
+  private BuildingFixtures() {
+  }
+
+  /**
+   * Step a building, adding a random request before about every other step.
+   *
+   * @param building the building to run.
+   * @param random   the source of the arrivals.
+   * @param steps    the number of steps.
+   */
+  static void run(Building building, SplittableRandom random, int steps) {
+    for (int step = 0; step < steps; step++) {
+      if (random.nextInt(2) == 0) {
+        building.addRequest(randomRequest(random, building.getNumberOfFloors()));
+      }
+      building.stepElevatorSystem();
+    }
+  }
+
+  /**
+   * Draw a uniformly random trip.
+   *
+   * @param random the source of the trip.
+   * @param floors the number of floors.
+   * @return a request between two different floors.
+   */
+  static Request randomRequest(SplittableRandom random, int floors) {
+    int start = random.nextInt(floors);
+    int end = random.nextInt(floors - 1);
+    return new Request(start, end >= start ? end + 1 : end);
+  }
+
+  /**
+   * Check that two buildings are at the same step with the same elevators and queues.
+   *
+   * @param expected the building to compare with.
+   * @param actual   the building to check.
+   */
+  static void assertSameState(Building expected, Building actual) {
+    assertEquals(expected.getStepCount(), actual.getStepCount());
+    assertEquals(expected.getStatus(), actual.getStatus());
+    BuildingReport want = expected.getElevatorSystemStatus();
+    BuildingReport got = actual.getElevatorSystemStatus();
+    assertArrayEquals(want.getElevatorReports(), got.getElevatorReports());
+    assertEquals(want.getUpRequests().toString(), got.getUpRequests().toString());
+    assertEquals(want.getDownRequests().toString(), got.getDownRequests().toString());
+  }
+}
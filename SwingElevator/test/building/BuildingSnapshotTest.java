@@ -0,0 +1,96 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import elevator.ElevatorReport;
+import org.junit.Before;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A Junit test class for the BuildingSnapshot class.
+ */
+public class BuildingSnapshotTest {
+  private Building building;
+  private BuildingSnapshot snapshot;
+
+  /**
+   * Set up a running building with some traffic.
+   */
+  @Before
+  public void setUp() {
+    building = new Building(10, 3, 5);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 4));
+    building.addRequest(new Request(2, 8));
+    for (int i = 0; i < 3; i++) {
+      building.stepElevatorSystem();
+    }
+    building.addRequest(new Request(6, 1));
+    snapshot = new BuildingSnapshot();
+  }
+
+  /**
+   * Test that the snapshot matches the elevator reports of the building.
+   */
+  @Test
+  public void testMatchesReports() {
+    building.captureSnapshot(snapshot);
+    BuildingReport report = building.getElevatorSystemStatus();
+
+    assertEquals(report.getNumFloors(), snapshot.getNumFloors());
+    assertEquals(report.getNumElevators(), snapshot.getNumElevators());
+    assertEquals(report.getSystemStatus(), snapshot.getSystemStatus());
+    for (int i = 0; i < snapshot.getNumElevators(); i++) {
+      assertEquals(report.getElevatorReports()[i], snapshot.toElevatorReport(i));
+    }
+    assertTrue(snapshot.hasStop(0, 4));
+    assertFalse(snapshot.hasStop(0, 5));
+  }
+
+  /**
+   * Test that pending requests are counted and copied.
+   */
+  @Test
+  public void testRequests() {
+    building.captureSnapshot(snapshot);
+    assertEquals(0, snapshot.getUpRequestCount());
+    assertEquals(1, snapshot.getDownRequestCount());
+    assertEquals(6, snapshot.getDownRequestStart(0));
+    assertEquals(1, snapshot.getDownRequestEnd(0));
+
+    BuildingReport report = snapshot.toBuildingReport();
+    assertEquals(1, report.getDownRequests().size());
+    assertEquals(6, report.getDownRequests().get(0).getStartFloor());
+  }
+
+  /**
+   * Test that only up to the request limit is copied while the count stays exact.
+   */
+  @Test
+  public void testRequestLimit() {
+    BuildingSnapshot small = new BuildingSnapshot(1);
+    building.addRequest(new Request(9, 3));
+    building.captureSnapshot(small);
+    assertEquals(2, small.getDownRequestCount());
+    assertEquals(1, small.toBuildingReport().getDownRequests().size());
+  }
+
+  /**
+   * Test that capturing again reuses the same buffers and reflects the new state.
+   */
+  @Test
+  public void testReuse() {
+    building.captureSnapshot(snapshot);
+    long[] words = snapshot.getStopWords();
+    building.stepElevatorSystem();
+    building.captureSnapshot(snapshot);
+
+    assertSame(words, snapshot.getStopWords());
+    ElevatorReport expected = building.getElevators().get(0).getElevatorStatus();
+    assertEquals(expected, snapshot.toElevatorReport(0));
+  }
+}
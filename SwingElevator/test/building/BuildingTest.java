@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 
 import building.enums.ElevatorSystemStatus;
 import elevator.Elevator;
+import elevator.ElevatorReport;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -54,6 +55,54 @@ public class BuildingTest {
     new Building(20, 7, 2);
   }
 
+  /**
+   * Test that the tower limits allow buildings beyond the standard caps.
+   */
+  @Test
+  public void testTowerLimits() {
+    Building tower = new Building(120, 60, 30, BuildingLimits.TOWER);
+    assertEquals(120, tower.getNumberOfFloors());
+    assertEquals(60, tower.getElevators().size());
+    assertEquals(120, tower.getElevators().get(59).getMaxFloor());
+    assertEquals(BuildingLimits.TOWER, tower.getLimits());
+  }
+
+  /**
+   * Test that a custom limits profile is enforced.
+   */
+  @Test
+  public void testCustomLimitsEnforced() {
+    exception.expect(IllegalArgumentException.class);
+    exception.expectMessage("Number of elevators must be between 2 and 4.");
+    new Building(10, 5, 5, new BuildingLimits(3, 50, 2, 4, 3, 20));
+  }
+
+  /**
+   * Test that limits can't allow more floors than a request queue can address.
+   */
+  @Test
+  public void testLimitsFloorCap() {
+    exception.expect(IllegalArgumentException.class);
+    exception.expectMessage("Floor range can't go above 65536.");
+    new BuildingLimits(3, 70_000, 1, 4, 3, 20);
+  }
+
+  /**
+   * Test that every building numbers its elevators from 0, so the ids are indexes.
+   */
+  @Test
+  public void testElevatorIdsPerBuilding() {
+    Building other = new Building(10, 3, 5);
+    ElevatorReport[] first = building1.getElevatorSystemStatus().getElevatorReports();
+    ElevatorReport[] second = other.getElevatorSystemStatus().getElevatorReports();
+    for (int i = 0; i < first.length; i++) {
+      assertEquals(i, first[i].getElevatorId());
+    }
+    for (int i = 0; i < second.length; i++) {
+      assertEquals(i, second[i].getElevatorId());
+    }
+  }
+
   /**
    * Test building is correctly initialized with the correct number of floors,
    * elevators, and elevator capacity.
@@ -206,6 +255,29 @@ public class BuildingTest {
     assertEquals(true, building1.addRequest(new Request(10, 2)));
   }
 
+  /**
+   * Test that requests submitted from many threads at once are all queued.
+   */
+  @Test
+  public void testAddRequestFromManyThreads() throws InterruptedException {
+    building1.startElevatorSystem();
+    Thread[] producers = new Thread[4];
+    for (int t = 0; t < producers.length; t++) {
+      producers[t] = new Thread(() -> {
+        for (int i = 0; i < 10_000; i++) {
+          building1.addRequest(i % 2 == 0 ? new Request(1, 9) : new Request(9, 1));
+        }
+      });
+      producers[t].start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+
+    assertEquals(20_000, building1.getUpRequest().size());
+    assertEquals(20_000, building1.getDownRequest().size());
+  }
+
   /**
    * Test stepElevatorSystem distribute requests when it's not stopping.
    */
@@ -0,0 +1,170 @@
+package building;
+
+import static building.BuildingFixtures.assertSameState;
+import static building.BuildingFixtures.randomRequest;
+import static building.BuildingFixtures.run;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import building.dispatch.NearestCarDispatchStrategy;
+import building.enums.ElevatorSystemStatus;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import scanerzus.Request;
+
+/**
+ * A Junit test class for checkpointing and restoring a Building.
+ */
+public class CheckpointTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Test that a restored building runs on exactly like the one that was saved.
+   */
+  @Test
+  public void testRestoredBuildingContinues() throws IOException {
+    Building original = new Building(20, 6, 8);
+    original.setDispatchStrategy(new NearestCarDispatchStrategy());
+    original.startElevatorSystem();
+    SplittableRandom random = new SplittableRandom(17L);
+    run(original, new SplittableRandom(3L), 5_000);
+
+    Path file = folder.newFile().toPath();
+    original.checkpoint(file);
+    Building restored = Building.restore(file);
+    restored.setDispatchStrategy(new NearestCarDispatchStrategy());
+    assertSameState(original, restored);
+
+    // both continue with the same arrivals, through a stop and a restart
+    for (int step = 0; step < 5_000; step++) {
+      if (step == 2_000) {
+        original.stopElevatorSystem();
+        restored.stopElevatorSystem();
+      }
+      if (step == 2_500) {
+        original.startElevatorSystem();
+        restored.startElevatorSystem();
+      }
+      if (original.getStatus() == ElevatorSystemStatus.running && random.nextInt(3) == 0) {
+        Request request = randomRequest(random, 20);
+        original.addRequest(request);
+        restored.addRequest(request);
+      }
+      original.stepElevatorSystem();
+      restored.stepElevatorSystem();
+    }
+    assertSameState(original, restored);
+    assertEquals(original.getLatencyMetrics().toString(),
+        restored.getLatencyMetrics().toString());
+  }
+
+  /**
+   * Test that a stopping building is saved and restored mid-stop.
+   */
+  @Test
+  public void testStoppingBuilding() throws IOException {
+    Building original = new Building(10, 3, 5);
+    original.startElevatorSystem();
+    run(original, new SplittableRandom(5L), 500);
+    original.stopElevatorSystem();
+    original.stepElevatorSystem();
+
+    Path file = folder.newFile().toPath();
+    original.checkpoint(file);
+    Building restored = Building.restore(file);
+    assertEquals(ElevatorSystemStatus.stopping, restored.getStatus());
+    assertSameState(original, restored);
+  }
+
+  /**
+   * Test that a building with a million pending requests is restored quickly.
+   */
+  @Test(timeout = 20_000)
+  public void testLargeBacklog() throws IOException {
+    Building original = new Building(30, 10, 20);
+    original.startElevatorSystem();
+    SplittableRandom random = new SplittableRandom(9L);
+    for (int i = 0; i < 1_000_000; i++) {
+      original.addRequest(randomRequest(random, 30));
+    }
+    original.stepElevatorSystem();
+
+    Path file = folder.newFile().toPath();
+    original.checkpoint(file);
+    long start = System.nanoTime();
+    Building restored = Building.restore(file);
+    long millis = (System.nanoTime() - start) / 1_000_000;
+
+    assertTrue("restore took " + millis + " ms", millis < 2_000);
+    assertTrue(Files.size(file) < 9 * 1_000_000 + 4_096);
+    assertSameState(original, restored);
+  }
+
+  /**
+   * Test that a checkpoint that fails half way leaves the previous one loadable and no
+   * temporary file behind.
+   */
+  @Test
+  public void testFailedWriteKeepsPreviousCheckpoint() throws IOException {
+    Building saved = new Building(10, 3, 5);
+    saved.startElevatorSystem();
+    run(saved, new SplittableRandom(4L), 300);
+    Path file = folder.newFile().toPath();
+    saved.checkpoint(file);
+
+    Building failing = new Building(10, 3, 5) {
+      @Override
+      public void writeTo(DataOutput out) throws IOException {
+        out.write(new byte[100_000]);
+        throw new IOException("No space left on device");
+      }
+    };
+    try {
+      failing.checkpoint(file);
+      fail("The failed write should have been reported.");
+    } catch (IOException e) {
+      assertEquals("No space left on device", e.getMessage());
+    }
+
+    assertSameState(saved, Building.restore(file));
+    try (Stream<Path> files = Files.list(file.getParent())) {
+      assertEquals(1, files.count());
+    }
+  }
+
+  /**
+   * Test that a file that is not a checkpoint is rejected.
+   */
+  @Test(expected = IOException.class)
+  public void testNotACheckpoint() throws IOException {
+    Path file = folder.newFile().toPath();
+    Files.write(file, new byte[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+    Building.restore(file);
+  }
+
+  /**
+   * Test that a checkpoint cut short is rejected.
+   */
+  @Test(expected = IOException.class)
+  public void testTruncatedCheckpoint() throws IOException {
+    Building original = new Building(10, 3, 5);
+    original.startElevatorSystem();
+    run(original, new SplittableRandom(1L), 200);
+    Path file = folder.newFile().toPath();
+    original.checkpoint(file);
+
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+    Building.restore(file);
+  }
+}
@@ -0,0 +1,159 @@
+package building;
+
+import static building.BuildingFixtures.assertSameState;
+import static building.BuildingFixtures.randomRequest;
+import static building.BuildingFixtures.run;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import building.dispatch.DispatchStrategy;
+import building.dispatch.NearestCarDispatchStrategy;
+import building.dispatch.TerminalDispatchStrategy;
+import building.enums.ElevatorSystemStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A Junit test class for forking a Building.
+ */
+public class ForkTest {
+  /**
+   * Test that a fork runs on exactly like the building it came from, and that the two
+   * don't see each other's changes.
+   */
+  @Test
+  public void testForkContinuesIndependently() {
+    Building original = new Building(20, 6, 8);
+    original.setDispatchStrategy(new NearestCarDispatchStrategy());
+    original.setRequestListener(new RequestLifecycleListener() {
+    });
+    original.startElevatorSystem();
+    run(original, new SplittableRandom(3L), 3_000);
+
+    Building fork = original.fork();
+    assertNull(fork.getRequestListener());
+    assertSameState(original, fork);
+
+    SplittableRandom random = new SplittableRandom(17L);
+    for (int step = 0; step < 3_000; step++) {
+      if (step == 1_000) {
+        original.stopElevatorSystem();
+        fork.stopElevatorSystem();
+      }
+      if (step == 1_500) {
+        original.startElevatorSystem();
+        fork.startElevatorSystem();
+      }
+      if (original.getStatus() == ElevatorSystemStatus.running && random.nextInt(3) == 0) {
+        Request request = randomRequest(random, 20);
+        original.addRequest(request);
+        fork.addRequest(request);
+      }
+      original.stepElevatorSystem();
+      fork.stepElevatorSystem();
+    }
+    assertSameState(original, fork);
+    assertEquals(original.getLatencyMetrics().toString(), fork.getLatencyMetrics().toString());
+
+    BuildingReport before = original.getElevatorSystemStatus();
+    run(fork, new SplittableRandom(5L), 500);
+    assertEquals(3_000 + 3_000, original.getStepCount());
+    assertArrayEquals(before.getElevatorReports(),
+        original.getElevatorSystemStatus().getElevatorReports());
+  }
+
+  /**
+   * Test that forks of a building with a large backlog stepped on their own threads end
+   * where the same forks stepped one after another do, and leave the source untouched.
+   */
+  @Test(timeout = 60_000)
+  public void testForksOnOwnThreads() throws InterruptedException, ExecutionException {
+    Building source = new Building(30, 10, 20);
+    source.startElevatorSystem();
+    run(source, new SplittableRandom(9L), 200);
+    SplittableRandom random = new SplittableRandom(11L);
+    for (int i = 0; i < 200_000; i++) {
+      source.addRequest(randomRequest(random, 30));
+    }
+    BuildingReport sourceReport = source.getElevatorSystemStatus();
+    String sourceUp = sourceReport.getUpRequests().toString();
+
+    DispatchStrategy[] strategies = {new TerminalDispatchStrategy(),
+        new NearestCarDispatchStrategy(), new TerminalDispatchStrategy(),
+        new NearestCarDispatchStrategy()};
+    List<BuildingReport> expected = new ArrayList<>();
+    for (int i = 0; i < strategies.length; i++) {
+      expected.add(experiment(source, strategies[i], i));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(strategies.length);
+    try {
+      List<Future<BuildingReport>> results = new ArrayList<>();
+      for (int i = 0; i < strategies.length; i++) {
+        Building fork = source.fork();
+        DispatchStrategy strategy = strategies[i];
+        int seed = i;
+        results.add(executor.submit(() -> experiment(fork, strategy, seed)));
+      }
+      for (int i = 0; i < strategies.length; i++) {
+        BuildingReport actual = results.get(i).get();
+        assertArrayEquals(expected.get(i).getElevatorReports(), actual.getElevatorReports());
+        assertEquals(expected.get(i).getUpRequests().toString(),
+            actual.getUpRequests().toString());
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertNotEquals(expected.get(0).getUpRequests().size(),
+        expected.get(1).getUpRequests().size());
+    assertEquals(sourceUp, source.getUpRequest().toString());
+    assertArrayEquals(sourceReport.getElevatorReports(),
+        source.getElevatorSystemStatus().getElevatorReports());
+  }
+
+  /**
+   * Test that forking a building with a million pending requests doesn't copy them.
+   */
+  @Test(timeout = 20_000)
+  public void testForkIsCheap() {
+    Building source = new Building(30, 10, 20);
+    source.startElevatorSystem();
+    SplittableRandom random = new SplittableRandom(1L);
+    for (int i = 0; i < 1_000_000; i++) {
+      source.addRequest(randomRequest(random, 30));
+    }
+    source.stepElevatorSystem();
+
+    long start = System.nanoTime();
+    Building fork = null;
+    for (int i = 0; i < 1_000; i++) {
+      fork = source.fork();
+    }
+    long millis = (System.nanoTime() - start) / 1_000_000;
+
+    assertTrue("1000 forks took " + millis + " ms", millis < 2_000);
+    assertSameState(source, fork);
+  }
+
+  /**
+   * Fork a building, dispatch with a strategy and run it with its own arrivals.
+   */
+  private static BuildingReport experiment(Building source, DispatchStrategy strategy,
+                                           int seed) {
+    Building building = source.fork();
+    building.setDispatchStrategy(strategy);
+    run(building, new SplittableRandom(seed), 2_000);
+    return building.getElevatorSystemStatus();
+  }
+}
@@ -0,0 +1,59 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.TimeUnit;
+import javax.swing.ImageIcon;
+import org.junit.Test;
+
+/**
+ * A Junit test class for the IconCache class.
+ */
+public class IconCacheTest {
+
+  /**
+   * Test that shipped icons load from the classpath and are shared.
+   */
+  @Test
+  public void testIconsShared() {
+    ImageIcon up = IconCache.get("up", 40);
+    assertNotNull(up);
+    assertEquals(40, up.getIconWidth());
+    assertSame(up, IconCache.get("up", 40));
+  }
+
+  /**
+   * Test that a size without its own image is scaled once and then shared.
+   */
+  @Test
+  public void testScaledIcon() {
+    ImageIcon scaled = IconCache.get("elevator", 30);
+    assertNotNull(scaled);
+    assertEquals(30, scaled.getIconWidth());
+    assertSame(scaled, IconCache.get("elevator", 30));
+  }
+
+  /**
+   * Test that preloading finishes and fills the cache.
+   */
+  @Test
+  public void testPreload() throws Exception {
+    IconCache.preload().get(10, TimeUnit.SECONDS);
+    for (String name : IconCache.NAMES) {
+      for (int size : IconCache.SIZES) {
+        assertEquals(size, IconCache.get(name, size).getIconHeight());
+      }
+    }
+  }
+
+  /**
+   * Test that an unknown icon gives null.
+   */
+  @Test
+  public void testUnknownIcon() {
+    assertNull(IconCache.get("sideways", 20));
+  }
+}
@@ -0,0 +1,137 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import building.enums.ElevatorSystemStatus;
+import building.metrics.LatencyMetrics;
+import org.junit.Test;
+import scanerzus.Request;
+import simulation.RandomRequestSource;
+
+/**
+ * A Junit test class for the wait and ride times recorded by the Building class.
+ */
+public class LatencyTrackingTest {
+
+  /**
+   * Test the wait and ride time of a single request from the ground floor.
+   */
+  @Test
+  public void testSingleRequest() {
+    Building building = new Building(10, 1, 5);
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 4));
+
+    for (int i = 0; i < 100; i++) {
+      building.stepElevatorSystem();
+    }
+
+    LatencyMetrics metrics = building.getLatencyMetrics();
+    assertEquals(1, metrics.getWaitTimes().getCount());
+    assertEquals(1, metrics.getRideTimes().getCount());
+    // picked up as soon as the waiting car takes the request
+    assertEquals(1, metrics.getWaitTimes().getMax());
+    // three steps with the door open, then one step per floor
+    assertEquals(8, metrics.getRideTimes().getMax());
+  }
+
+  /**
+   * Test that every accepted request is eventually picked up and dropped off.
+   */
+  @Test
+  public void testEveryRequestServed() {
+    Building building = new Building(20, 4, 8);
+    building.startElevatorSystem();
+    RandomRequestSource source = new RandomRequestSource(20, 0.2, 17L, 300);
+
+    for (long tick = 0; tick < 20_000; tick++) {
+      while (source.nextTick() <= tick) {
+        building.addRequest(source.next());
+      }
+      building.stepElevatorSystem();
+    }
+
+    LatencyMetrics metrics = building.getLatencyMetrics();
+    assertEquals(300, metrics.getWaitTimes().getCount());
+    assertEquals(300, metrics.getRideTimes().getCount());
+    assertTrue(metrics.getWaitTimes().getValueAtPercentile(50)
+        <= metrics.getWaitTimes().getValueAtPercentile(99));
+  }
+
+  /**
+   * Test that skipping quiet steps records the same latencies as stepping.
+   */
+  @Test
+  public void testAdvanceRecordsSameLatencies() {
+    Building stepped = new Building(20, 3, 6);
+    Building advanced = new Building(20, 3, 6);
+    stepped.startElevatorSystem();
+    advanced.startElevatorSystem();
+    RandomRequestSource steppedSource = new RandomRequestSource(20, 0.05, 23L);
+    RandomRequestSource advancedSource = new RandomRequestSource(20, 0.05, 23L);
+
+    for (long tick = 0; tick < 5_000; tick++) {
+      while (steppedSource.nextTick() <= tick) {
+        stepped.addRequest(steppedSource.next());
+      }
+      stepped.stepElevatorSystem();
+    }
+    long tick = 0;
+    while (tick < 5_000) {
+      while (advancedSource.nextTick() <= tick) {
+        advanced.addRequest(advancedSource.next());
+      }
+      long next = Math.min(advancedSource.nextTick(), 5_000);
+      advanced.advanceElevatorSystem(next - tick);
+      tick = next;
+    }
+
+    assertEquals(stepped.getLatencyMetrics().toString(),
+        advanced.getLatencyMetrics().toString());
+  }
+
+  /**
+   * Test that requests dropped by stopping the system are not counted.
+   */
+  @Test
+  public void testStopDropsWaitingRequests() {
+    Building building = new Building(10, 1, 5);
+    building.startElevatorSystem();
+    building.addRequest(new Request(3, 7));
+    building.stepElevatorSystem();
+    building.stopElevatorSystem();
+
+    for (int i = 0; i < 50; i++) {
+      building.stepElevatorSystem();
+    }
+
+    assertEquals(0, building.getLatencyMetrics().getWaitTimes().getCount());
+    assertEquals(0, building.getLatencyMetrics().getRideTimes().getCount());
+  }
+
+  /**
+   * Test that a request made after the system is stopped and started again is timed,
+   * even though the cars were parked with their doors open.
+   */
+  @Test
+  public void testRestartTracksNextPickup() {
+    Building building = new Building(10, 1, 5);
+    building.startElevatorSystem();
+    building.stopElevatorSystem();
+    for (int i = 0; i < 50; i++) {
+      building.stepElevatorSystem();
+    }
+    assertEquals(ElevatorSystemStatus.outOfService, building.getStatus());
+
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 4));
+    for (int i = 0; i < 100; i++) {
+      building.stepElevatorSystem();
+    }
+
+    LatencyMetrics metrics = building.getLatencyMetrics();
+    assertEquals(1, metrics.getWaitTimes().getCount());
+    assertEquals(1, metrics.getRideTimes().getCount());
+  }
+}
@@ -0,0 +1,61 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+
+import elevator.Elevator;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import simulation.RandomRequestSource;
+
+/**
+ * A Junit test class for parallel elevator stepping in the Building class.
+ */
+public class ParallelStepTest {
+
+  /**
+   * Test that parallel stepping leaves every elevator in the same state as sequential
+   * stepping after every single step.
+   */
+  @Test
+  public void testParallelMatchesSequential() {
+    Building sequential = new Building(120, 64, 20, BuildingLimits.TOWER);
+    Building parallel = new Building(120, 64, 20, BuildingLimits.TOWER);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    parallel.setParallelStepping(pool);
+    sequential.startElevatorSystem();
+    parallel.startElevatorSystem();
+
+    RandomRequestSource sequentialSource = new RandomRequestSource(120, 2.0, 11L);
+    RandomRequestSource parallelSource = new RandomRequestSource(120, 2.0, 11L);
+
+    try {
+      for (long tick = 0; tick < 3_000; tick++) {
+        while (sequentialSource.nextTick() <= tick) {
+          sequential.addRequest(sequentialSource.next());
+          parallel.addRequest(parallelSource.next());
+        }
+        sequential.stepElevatorSystem();
+        parallel.stepElevatorSystem();
+        assertSameState(sequential, parallel);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private void assertSameState(Building expected, Building actual) {
+    assertEquals(expected.getUpRequest().size(), actual.getUpRequest().size());
+    assertEquals(expected.getDownRequest().size(), actual.getDownRequest().size());
+    for (int i = 0; i < expected.getNumberOfElevators(); i++) {
+      Elevator a = expected.getElevators().get(i);
+      Elevator b = actual.getElevators().get(i);
+      assertEquals(a.getCurrentFloor(), b.getCurrentFloor());
+      assertEquals(a.getDirection(), b.getDirection());
+      assertEquals(a.isDoorClosed(), b.isDoorClosed());
+      assertEquals(a.getDoorOpenTimeLeft(), b.getDoorOpenTimeLeft());
+      assertEquals(a.getStopWaitTimeLeft(), b.getStopWaitTimeLeft());
+      assertEquals(a.isTakingRequests(), b.isTakingRequests());
+      assertEquals(a.getElevatorStatus().getStopSet(), b.getElevatorStatus().getStopSet());
+    }
+  }
+}
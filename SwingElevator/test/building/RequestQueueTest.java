@@ -0,0 +1,189 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A Junit test class for the RequestQueue class.
+ */
+public class RequestQueueTest {
+  private RequestQueue queue;
+
+  @Before
+  public void setUp() {
+    queue = new RequestQueue();
+  }
+
+  /**
+   * Test that requests are drained in the order they were added.
+   */
+  @Test
+  public void testDrainKeepsOrder() {
+    for (int i = 0; i < 5; i++) {
+      queue.add(new Request(i, i + 1));
+    }
+
+    List<Request> drained = queue.drain(3);
+    assertEquals(3, drained.size());
+    assertEquals(0, drained.get(0).getStartFloor());
+    assertEquals(2, drained.get(2).getStartFloor());
+    assertEquals(2, queue.size());
+    assertEquals(3, queue.view().get(0).getStartFloor());
+  }
+
+  /**
+   * Test that draining more than the queue holds returns what is left.
+   */
+  @Test
+  public void testDrainMoreThanSize() {
+    queue.add(new Request(1, 2));
+    assertEquals(1, queue.drain(10).size());
+    assertTrue(queue.isEmpty());
+    assertEquals(0, queue.drain(10).size());
+  }
+
+  /**
+   * Test that the queue keeps its order when it grows after wrapping around.
+   */
+  @Test
+  public void testGrowAfterWrap() {
+    for (int i = 0; i < 10; i++) {
+      queue.add(new Request(i, i + 1));
+    }
+    queue.drain(8);
+    for (int i = 10; i < 40; i++) {
+      queue.add(new Request(i, i + 1));
+    }
+
+    List<Request> view = queue.view();
+    assertEquals(32, view.size());
+    for (int i = 0; i < view.size(); i++) {
+      assertEquals(i + 8, view.get(i).getStartFloor());
+    }
+  }
+
+  /**
+   * Test that clear empties the queue and the view.
+   */
+  @Test
+  public void testClear() {
+    queue.add(new Request(1, 2));
+    queue.add(new Request(3, 2));
+    queue.clear();
+    assertEquals(0, queue.size());
+    assertEquals(0, queue.view().size());
+  }
+
+  /**
+   * Test that the view can't be used to modify the queue.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testViewIsReadOnly() {
+    queue.view().add(new Request(1, 2));
+  }
+
+  /**
+   * Test that floors up to the packing limit survive the round trip.
+   */
+  @Test
+  public void testLargeFloorsRoundTrip() {
+    queue.add(new Request(RequestQueue.MAX_FLOORS - 1, 0), 5);
+    queue.add(new Request(255, 256), 6);
+
+    assertEquals(RequestQueue.MAX_FLOORS - 1, queue.view().get(0).getStartFloor());
+    assertEquals(0, queue.getEndFloor(0));
+    assertEquals(255, queue.getStartFloor(1));
+    assertEquals(256, queue.poll().getEndFloor() + queue.poll().getEndFloor());
+  }
+
+  /**
+   * Test that a request keeps the step it was queued at when it is put back.
+   */
+  @Test
+  public void testQueuedTickKeptWhenPutBack() {
+    queue.add(new Request(1, 2), 10);
+    queue.add(new Request(2, 3), 20);
+
+    Request first = queue.poll();
+    assertEquals(10, RequestQueue.queuedTickOf(first, -1));
+    queue.addFirst(first);
+    assertEquals(10, RequestQueue.queuedTickOf(queue.poll(), -1));
+    assertEquals(20, RequestQueue.queuedTickOf(queue.poll(), -1));
+    assertEquals(-1, RequestQueue.queuedTickOf(new Request(1, 2), -1));
+  }
+
+  /**
+   * Test that queued ticks past 2^32 are rebuilt exactly.
+   */
+  @Test
+  public void testQueuedTickBeyondPackedRange() {
+    long base = (1L << 32) - 3;
+    queue.add(new Request(1, 2), base);
+    queue.add(new Request(2, 3), base + 10);
+
+    assertEquals(base, RequestQueue.queuedTickOf(queue.poll(), -1));
+    assertEquals(base + 10, RequestQueue.queuedTickOf(queue.poll(), -1));
+  }
+
+  /**
+   * Test that a fork and its source don't see each other's changes, including requests
+   * put back over entries the other side still holds.
+   */
+  @Test
+  public void testForkIsIndependent() {
+    for (int i = 0; i < 6; i++) {
+      queue.add(new Request(i, i + 1), i);
+    }
+    RequestQueue fork = queue.fork();
+
+    Request first = queue.poll();
+    queue.poll();
+    queue.addFirst(new Request(9, 8));
+    queue.add(new Request(7, 6));
+    fork.drain(2);
+    fork.addFirst(first);
+
+    assertEquals("[9->8, 2->3, 3->4, 4->5, 5->6, 7->6]", queue.view().toString());
+    assertEquals("[0->1, 2->3, 3->4, 4->5, 5->6]", fork.view().toString());
+    assertEquals(0, RequestQueue.queuedTickOf(fork.poll(), -1));
+  }
+
+  /**
+   * Test that removing from the middle keeps the order and queued ticks of the rest,
+   * across a wrapped buffer, and leaves a fork untouched.
+   */
+  @Test
+  public void testRemovePositions() {
+    for (int i = 0; i < 12; i++) {
+      queue.add(new Request(i, i + 1), i);
+    }
+    queue.drain(10);
+    for (int i = 12; i < 20; i++) {
+      queue.add(new Request(i, i + 1), i);
+    }
+    RequestQueue fork = queue.fork();
+
+    List<Request> removed = queue.remove(new int[] {1, 4, 5, 9}, 4);
+    assertEquals("[11->12, 14->15, 15->16, 19->20]", removed.toString());
+    assertEquals("[10->11, 12->13, 13->14, 16->17, 17->18, 18->19]",
+        queue.view().toString());
+    assertEquals(16, RequestQueue.queuedTickOf(queue.view().get(3), -1));
+    assertEquals(10, fork.size());
+    assertEquals(11, fork.view().get(1).getStartFloor());
+  }
+
+  /**
+   * Test that positions out of order are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testRemoveUnorderedPositions() {
+    queue.add(new Request(1, 2));
+    queue.add(new Request(2, 3));
+    queue.remove(new int[] {1, 0}, 2);
+  }
+}
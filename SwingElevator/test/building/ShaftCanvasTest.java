@@ -0,0 +1,80 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.BitSet;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A Junit test class for the ShaftCanvas class.
+ */
+public class ShaftCanvasTest {
+
+  /**
+   * Test that only elevators that changed between two frames are marked dirty.
+   */
+  @Test
+  public void testOnlyChangedShaftsDirty() {
+    Building building = new Building(120, 40, 10, BuildingLimits.TOWER);
+    building.startElevatorSystem();
+    BuildingSnapshot before = capture(building);
+    assertTrue(ShaftCanvas.changedShafts(before, capture(building)).isEmpty());
+
+    building.addRequest(new Request(0, 90));
+    building.stepElevatorSystem();
+    BitSet dirty = ShaftCanvas.changedShafts(before, capture(building));
+    assertEquals(1, dirty.cardinality());
+    assertEquals(0, dirty.nextSetBit(0));
+  }
+
+  /**
+   * Test that shafts sit side by side without overlapping.
+   */
+  @Test
+  public void testShaftsDoNotOverlap() {
+    ShaftCanvas canvas = new ShaftCanvas();
+    canvas.setSize(800, 600);
+    for (int i = 1; i < 30; i++) {
+      assertTrue(canvas.shaftBounds(i - 1, 30).getMaxX() <= canvas.shaftBounds(i, 30).x);
+    }
+  }
+
+  /**
+   * Test that a frame of a tall building paints the car of each shaft.
+   */
+  @Test
+  public void testPaintTallBuilding() {
+    Building building = new Building(200, 24, 10, BuildingLimits.TOWER);
+    building.startElevatorSystem();
+    building.stopElevatorSystem();
+    ShaftCanvas canvas = new ShaftCanvas();
+    canvas.setSize(960, 800);
+    canvas.setFrame(capture(building));
+
+    BufferedImage image = new BufferedImage(960, 800, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    canvas.paint(g);
+    g.dispose();
+
+    // every car is out of service on the ground floor, so it is drawn red at the bottom
+    for (int i = 0; i < 24; i++) {
+      Rectangle shaft = canvas.shaftBounds(i, 24);
+      int pixel = image.getRGB((int) shaft.getCenterX() + shaft.width / 4, 799);
+      assertEquals(Color.RED.getRGB(), pixel);
+      assertNotEquals(Color.RED.getRGB(), image.getRGB((int) shaft.getCenterX(), 10));
+    }
+  }
+
+  private BuildingSnapshot capture(Building building) {
+    BuildingSnapshot snapshot = new BuildingSnapshot();
+    building.captureSnapshot(snapshot);
+    return snapshot;
+  }
+}
@@ -0,0 +1,96 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A Junit test class for the SimulationRunner class.
+ */
+public class SimulationRunnerTest {
+
+  /**
+   * Test that a fast runner steps on its own thread while frames are skipped down to the
+   * frame rate.
+   */
+  @Test(timeout = 10_000)
+  public void testFastRunSkipsFrames() throws Exception {
+    Building building = new Building(20, 4, 8);
+    building.startElevatorSystem();
+    AtomicInteger frames = new AtomicInteger();
+    AtomicLong lastSteps = new AtomicLong();
+    SimulationRunner runner = new SimulationRunner(building, (frame, steps) -> {
+      assertTrue(SwingUtilities.isEventDispatchThread());
+      frames.incrementAndGet();
+      lastSteps.set(steps);
+    }, 8, 10_000);
+
+    runner.resume();
+    assertTrue(runner.isRunning());
+    for (int i = 0; i < 100; i++) {
+      building.addRequest(new Request(i % 19, 19));
+      Thread.sleep(5);
+    }
+    runner.pause();
+    assertFalse(runner.isRunning());
+    flushFrames();
+
+    long steps;
+    synchronized (building) {
+      steps = building.getStepCount();
+    }
+    assertTrue(steps > 1_000);
+    assertTrue(frames.get() < steps / 10);
+    // the frame published on pause shows where the worker stopped
+    assertEquals(steps, lastSteps.get());
+  }
+
+  /**
+   * Test that single steps and stop publish a frame each and that stop restarts the count.
+   */
+  @Test(timeout = 10_000)
+  public void testStepAndStop() throws Exception {
+    Building building = new Building(10, 2, 5);
+    building.startElevatorSystem();
+    AtomicReference<BuildingSnapshot> latest = new AtomicReference<>();
+    AtomicLong lastSteps = new AtomicLong(-1);
+    SimulationRunner runner = new SimulationRunner(building, (frame, steps) -> {
+      latest.set(frame);
+      lastSteps.set(steps);
+    }, 8, 10);
+
+    building.addRequest(new Request(0, 5));
+    runner.step();
+    runner.step();
+    flushFrames();
+    assertEquals(2, lastSteps.get());
+
+    runner.stop();
+    flushFrames();
+    assertEquals(0, lastSteps.get());
+    assertEquals(building.getStatus(), latest.get().getSystemStatus());
+  }
+
+  /**
+   * Test that a step rate outside the supported range is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidRate() {
+    new SimulationRunner(new Building(10, 2, 5), (frame, steps) -> { }, 8, 0);
+  }
+
+  /**
+   * Wait for the frame being shown and the forced frame it may have held back.
+   */
+  private void flushFrames() throws Exception {
+    SwingUtilities.invokeAndWait(() -> { });
+    SwingUtilities.invokeAndWait(() -> { });
+  }
+}
@@ -0,0 +1,155 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.lang.ref.WeakReference;
+import javax.swing.JButton;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.SwingUtilities;
+import org.junit.Test;
+
+/**
+ * A Junit test class for restarting through the SwingBuildingController class.
+ */
+public class SwingBuildingControllerTest {
+
+  /**
+   * Test that hundreds of restarts in the same window leave no old model, request buttons
+   * or simulation threads behind.
+   */
+  @Test(timeout = 60_000)
+  public void testRestartDoesNotLeak() throws Exception {
+    FakeView view = new FakeView(10);
+    SwingBuildingController controller = new SwingBuildingController(view,
+        new Building(10, 2, 5));
+    SwingUtilities.invokeAndWait(controller::start);
+
+    WeakReference<BuildingInterface> firstModel = new WeakReference<>(controller.getModel());
+    WeakReference<JButton[][]> firstButtons = new WeakReference<>(view.getRequests());
+
+    for (int i = 0; i < 300; i++) {
+      int floors = 5 + i % 7;
+      SwingUtilities.invokeAndWait(() -> {
+        view.getRun().doClick(0);
+        controller.restartControl(floors, 1 + floors % 3, 4);
+      });
+    }
+    SwingUtilities.invokeAndWait(() -> { });
+    SwingUtilities.invokeAndWait(() -> { });
+
+    assertEquals(5 + 299 % 7, controller.getModel().getNumberOfFloors());
+    assertNotSame(firstModel.get(), controller.getModel());
+    for (int i = 0; i < 100 && (firstModel.get() != null || firstButtons.get() != null); i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertNull(firstModel.get());
+    assertNull(firstButtons.get());
+
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      assertFalse(thread.isAlive() && thread.getName().equals("elevator-simulation"));
+    }
+  }
+
+  /**
+   * Test that a restart with invalid parameters keeps the current building running.
+   */
+  @Test
+  public void testInvalidRestartKeepsBuilding() throws Exception {
+    FakeView view = new FakeView(10);
+    SwingBuildingController controller = new SwingBuildingController(view,
+        new Building(10, 2, 5));
+    SwingUtilities.invokeAndWait(controller::start);
+    BuildingInterface model = controller.getModel();
+
+    try {
+      controller.restartControl(1, 2, 5);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    assertEquals(model, controller.getModel());
+    assertEquals(10, view.getRequests().length);
+  }
+
+  /**
+   * A view without a window that, like the real one, replaces its request buttons on
+   * rebuild.
+   */
+  private static final class FakeView implements SwingBuildingViewInterface {
+    private final JButton step = new JButton();
+    private final JButton run = new JButton();
+    private final JButton stop = new JButton();
+    private final JButton restart = new JButton();
+    private final JSpinner rate = new JSpinner(new SpinnerNumberModel(10, 1, 100, 1));
+    private JButton[][] requests;
+
+    FakeView(int numFloor) {
+      rebuild(numFloor, 1);
+    }
+
+    @Override
+    public int[] createRestartWin() {
+      return new int[] {10, 2, 5};
+    }
+
+    @Override
+    public int createPopUp(JButton btn) {
+      return 0;
+    }
+
+    @Override
+    public void clearView() {
+    }
+
+    @Override
+    public void rebuild(int numFloor, int numElevator) {
+      requests = new JButton[numFloor][2];
+      for (int i = 0; i < numFloor; i++) {
+        requests[i][0] = new JButton();
+        requests[i][1] = new JButton();
+      }
+    }
+
+    @Override
+    public void showFrame(BuildingSnapshot frame, long steps) {
+    }
+
+    @Override
+    public void setRunning(boolean running) {
+    }
+
+    @Override
+    public JButton[][] getRequests() {
+      return requests;
+    }
+
+    @Override
+    public JButton getStep() {
+      return step;
+    }
+
+    @Override
+    public JButton getRun() {
+      return run;
+    }
+
+    @Override
+    public JSpinner getRate() {
+      return rate;
+    }
+
+    @Override
+    public JButton getStop() {
+      return stop;
+    }
+
+    @Override
+    public JButton getRestart() {
+      return restart;
+    }
+  }
+}
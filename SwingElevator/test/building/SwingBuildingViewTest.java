@@ -0,0 +1,80 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * A Junit test class for the request banner text of the SwingBuildingView class.
+ */
+public class SwingBuildingViewTest {
+
+  /**
+   * Test that a frame without requests gives empty banners.
+   */
+  @Test
+  public void testDescribeNoRequests() {
+    BuildingSnapshot frame = capture(new Building(10, 2, 5), new BuildingSnapshot());
+    assertEquals("", SwingBuildingView.describeRequests("Up: ", frame, true));
+    assertEquals("", SwingBuildingView.describeRequests("Down: ", frame, false));
+  }
+
+  /**
+   * Test that requests are listed in queue order under their own direction.
+   */
+  @Test
+  public void testDescribeRequests() {
+    Building building = new Building(10, 2, 5);
+    building.startElevatorSystem();
+    building.addRequest(new Request(1, 4));
+    building.addRequest(new Request(7, 0));
+    building.addRequest(new Request(2, 3));
+
+    BuildingSnapshot frame = capture(building, new BuildingSnapshot());
+    assertEquals("Up: 1 -> 4; 2 -> 3; ",
+        SwingBuildingView.describeRequests("Up: ", frame, true));
+    assertEquals("Down: 7 -> 0; ",
+        SwingBuildingView.describeRequests("Down: ", frame, false));
+  }
+
+  /**
+   * Test that a long backlog is cut short instead of growing the banner without bound.
+   */
+  @Test
+  public void testDescribeLongBacklog() {
+    Building building = new Building(10, 2, 5);
+    building.startElevatorSystem();
+    for (int i = 0; i < 5_000; i++) {
+      building.addRequest(new Request(0, 1 + i % 9));
+    }
+
+    String text = SwingBuildingView.describeRequests("Up: ",
+        capture(building, new BuildingSnapshot()), true);
+    assertTrue(text.endsWith("... (4968 more)"));
+    assertTrue(text.length() < 500);
+  }
+
+  /**
+   * Test that a frame holding fewer requests than the banner shows lists what it holds
+   * and counts the rest.
+   */
+  @Test
+  public void testDescribeBeyondRequestLimit() {
+    Building building = new Building(10, 2, 5);
+    building.startElevatorSystem();
+    for (int i = 0; i < 10; i++) {
+      building.addRequest(new Request(9, i % 9));
+    }
+
+    assertEquals("Down: 9 -> 0; 9 -> 1; 9 -> 2; ... (7 more)",
+        SwingBuildingView.describeRequests("Down: ", capture(building,
+            new BuildingSnapshot(3)), false));
+  }
+
+  private static BuildingSnapshot capture(Building building, BuildingSnapshot frame) {
+    building.captureSnapshot(frame);
+    return frame;
+  }
+}
@@ -0,0 +1,96 @@
+package building.dispatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import elevator.Elevator;
+import org.junit.Before;
+import org.junit.Test;
+import scanerzus.Request;
+import simulation.RandomRequestSource;
+import simulation.SimulationEngine;
+import simulation.SimulationResult;
+
+/**
+ * A Junit test class for the NearestCarDispatchStrategy class.
+ */
+public class NearestCarDispatchStrategyTest {
+  private Building building;
+  private Elevator elevator;
+
+  /**
+   * Set up a building whose only elevator is moving up from the ground floor.
+   */
+  @Before
+  public void setUp() {
+    building = new Building(20, 1, 5);
+    building.setDispatchStrategy(new NearestCarDispatchStrategy());
+    building.startElevatorSystem();
+    for (int i = 0; i < 8; i++) {
+      building.stepElevatorSystem();
+    }
+    elevator = building.getElevators().get(0);
+  }
+
+  /**
+   * Test that a moving elevator picks up a request ahead of it mid-shaft.
+   */
+  @Test
+  public void testAssignsMidShaft() {
+    assertEquals(3, elevator.getCurrentFloor());
+    building.addRequest(new Request(10, 15));
+    building.stepElevatorSystem();
+
+    assertEquals(0, building.getUpRequest().size());
+    boolean[] stops = elevator.getFloorRequests();
+    assertTrue(stops[10]);
+    assertTrue(stops[15]);
+  }
+
+  /**
+   * Test that requests no elevator can take stay queued in their original order.
+   */
+  @Test
+  public void testKeepsUnreachableRequestsInOrder() {
+    building.addRequest(new Request(1, 5));
+    building.addRequest(new Request(12, 14));
+    building.addRequest(new Request(2, 6));
+    building.stepElevatorSystem();
+
+    assertEquals(2, building.getUpRequest().size());
+    assertEquals(1, building.getUpRequest().get(0).getStartFloor());
+    assertEquals(2, building.getUpRequest().get(1).getStartFloor());
+    assertFalse(elevator.getFloorRequests()[1]);
+  }
+
+  /**
+   * Test that a run never takes more requests than the elevator capacity.
+   */
+  @Test
+  public void testRespectsCapacity() {
+    for (int i = 0; i < 7; i++) {
+      building.addRequest(new Request(10, 11 + i));
+    }
+    building.stepElevatorSystem();
+
+    assertEquals(2, building.getUpRequest().size());
+    assertEquals(0, elevator.getRemainingCapacity());
+  }
+
+  /**
+   * Test that every request is eventually served under random traffic.
+   */
+  @Test
+  public void testServesAllTraffic() {
+    Building busy = new Building(30, 6, 10);
+    busy.setDispatchStrategy(new NearestCarDispatchStrategy());
+    SimulationEngine engine = new SimulationEngine(busy,
+        new RandomRequestSource(30, 0.5, 5L, 2_000));
+
+    SimulationResult result = engine.run(20_000);
+    assertEquals(2_000, result.getSubmittedRequests());
+    assertEquals(0, result.getPendingRequests());
+  }
+}
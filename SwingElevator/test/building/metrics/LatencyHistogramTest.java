@@ -0,0 +1,90 @@
+package building.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * A Junit test class for the LatencyHistogram class.
+ */
+public class LatencyHistogramTest {
+
+  /**
+   * Test that small values are counted exactly.
+   */
+  @Test
+  public void testSmallValuesExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+
+    assertEquals(100, histogram.getCount());
+    assertEquals(1, histogram.getMin());
+    assertEquals(100, histogram.getMax());
+    assertEquals(50.5, histogram.getMean(), 1e-9);
+    assertEquals(50, histogram.getValueAtPercentile(50));
+    assertEquals(95, histogram.getValueAtPercentile(95));
+    assertEquals(99, histogram.getValueAtPercentile(99));
+    assertEquals(100, histogram.getValueAtPercentile(100));
+  }
+
+  /**
+   * Test that large values stay within the relative precision of the histogram.
+   */
+  @Test
+  public void testLargeValuesWithinPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value < 1_000_000_000_000L; value = value * 3 + 1) {
+      histogram.reset();
+      histogram.record(value);
+      histogram.record(Long.MAX_VALUE / 2);
+      long p50 = histogram.getValueAtPercentile(50);
+      assertTrue(p50 >= value);
+      assertTrue(p50 - value <= value / 64);
+    }
+  }
+
+  /**
+   * Test that an empty histogram reports zeros.
+   */
+  @Test
+  public void testEmpty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMin());
+    assertEquals(0, histogram.getValueAtPercentile(99));
+    assertEquals(0.0, histogram.getMean(), 0.0);
+  }
+
+  /**
+   * Test that a copy does not change with the original.
+   */
+  @Test
+  public void testCopyIsIndependent() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(7);
+    LatencyHistogram copy = histogram.copy();
+    histogram.record(9);
+
+    assertEquals(1, copy.getCount());
+    assertEquals(7, copy.getMax());
+  }
+
+  /**
+   * Test that negative values are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeValue() {
+    new LatencyHistogram().record(-1);
+  }
+
+  /**
+   * Test that percentiles outside 0 to 100 are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidPercentile() {
+    new LatencyHistogram().getValueAtPercentile(101);
+  }
+}
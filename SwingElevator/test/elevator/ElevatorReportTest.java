@@ -254,6 +254,26 @@ public class ElevatorReportTest {
 
   }
 
+  @Test
+  public void getFloorRequestsIsCopy() {
+    report.getFloorRequests()[0] = true;
+    assertFalse(report.getFloorRequests()[0]);
+  }
+
+  @Test
+  public void tallBuildingStopSet() {
+    boolean[] stops = new boolean[130];
+    stops[3] = true;
+    stops[129] = true;
+    StopSet set = StopSet.of(stops);
+    assertTrue(set.contains(129));
+    assertFalse(set.contains(128));
+    assertEquals(2, set.size());
+    assertArrayEquals(stops, set.toBooleanArray());
+    assertEquals(set, StopSet.of(stops.clone()));
+    assertEquals(set.hashCode(), StopSet.of(stops.clone()).hashCode());
+  }
+
   @Test
   public void testOtherClassesNotEqual() {
     assertNotEquals(report, new Object());
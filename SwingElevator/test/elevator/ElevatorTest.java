@@ -2,8 +2,10 @@ package elevator;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import building.BuildingLimits;
 import building.enums.Direction;
 import java.util.ArrayList;
 import java.util.List;
@@ -172,6 +174,23 @@ public class ElevatorTest {
 
   }
 
+  /**
+   * Test that an elevator can be given its id.
+   */
+  @Test
+  public void elevatorGivenId() {
+    Elevator elevator = new Elevator(7, 10, 5, BuildingLimits.STANDARD);
+    assertEquals(7, elevator.getElevatorId());
+  }
+
+  /**
+   * Test that a negative id is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void elevatorNegativeId() {
+    new Elevator(-1, 10, 5, BuildingLimits.STANDARD);
+  }
+
 
   /**
    * Test that the elevator starts out of service.
@@ -737,6 +756,96 @@ public class ElevatorTest {
     elevatorTenFloors10Capacity.processRequests(upTenRequests);
   }
 
+  /**
+   * Test that a report taken earlier doesn't change as the elevator keeps stepping.
+   */
+  @Test
+  public void elevatorReportIsNotLive() {
+    System.out.println("Testing: elevatorReportIsNotLive");
+    elevatorTenFloors10Capacity.start();
+    elevatorTenFloors10Capacity.processRequests(upTenRequests);
+
+    ElevatorReport before = elevatorTenFloors10Capacity.getElevatorStatus();
+    elevatorTenFloors10Capacity.step();
+    assertTrue(before.getFloorRequests()[0]);
+    assertFalse(elevatorTenFloors10Capacity.getElevatorStatus().getFloorRequests()[0]);
+  }
+
+  /**
+   * Test that reports of an unchanged elevator share one stop set.
+   */
+  @Test
+  public void elevatorReportsShareStopSet() {
+    System.out.println("Testing: elevatorReportsShareStopSet");
+    elevatorTenFloors10Capacity.start();
+    elevatorTenFloors10Capacity.processRequests(upTenRequests);
+    assertSame(elevatorTenFloors10Capacity.getElevatorStatus().getStopSet(),
+        elevatorTenFloors10Capacity.getElevatorStatus().getStopSet());
+  }
+
+  /**
+   * Test that a moving elevator accepts requests on its way and keeps its other stops.
+   */
+  @Test
+  public void elevatorProcessesRequestsOnTheWay() {
+    System.out.println("Testing: elevatorProcessesRequestsOnTheWay");
+    elevatorTenFloors10Capacity.start();
+    elevatorTenFloors10Capacity.processRequests(upTenRequestsNotTop);
+    for (int i = 0; i < 9; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    int floor = elevatorTenFloors10Capacity.getCurrentFloor();
+    assertTrue(floor > 0 && floor < 7);
+
+    List<Request> onTheWay = new ArrayList<>();
+    onTheWay.add(new Request(7, 8));
+    assertTrue(elevatorTenFloors10Capacity.isOnTheWay(onTheWay.get(0)));
+    assertFalse(elevatorTenFloors10Capacity.isOnTheWay(new Request(8, 7)));
+    elevatorTenFloors10Capacity.processRequests(onTheWay);
+
+    boolean[] floorRequests = elevatorTenFloors10Capacity.getFloorRequests();
+    assertTrue(floorRequests[6]);
+    assertTrue(floorRequests[7]);
+    assertTrue(floorRequests[8]);
+    // the rider to floor 1 has got off, so four of the five riders are still counted
+    assertEquals(10 - 4, elevatorTenFloors10Capacity.getRemainingCapacity());
+  }
+
+  /**
+   * Test that riders getting off give their room back for the rest of the run.
+   */
+  @Test
+  public void elevatorCapacityRecoversAfterDropOff() {
+    System.out.println("Testing: elevatorCapacityRecoversAfterDropOff");
+    Elevator elevator = new Elevator(10, 3);
+    elevator.start();
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 2));
+    requests.add(new Request(1, 2));
+    requests.add(new Request(1, 4));
+    elevator.processRequests(requests);
+    assertEquals(0, elevator.getRemainingCapacity());
+
+    while (elevator.getCurrentFloor() < 2 || elevator.isDoorClosed()) {
+      elevator.step();
+    }
+    assertEquals(2, elevator.getRemainingCapacity());
+
+    List<Request> onTheWay = new ArrayList<>();
+    onTheWay.add(new Request(3, 5));
+    onTheWay.add(new Request(4, 6));
+    while (!elevator.isDoorClosed()) {
+      elevator.step();
+    }
+    elevator.processRequests(onTheWay);
+    assertEquals(0, elevator.getRemainingCapacity());
+
+    while (elevator.getCurrentFloor() < 5 || elevator.isDoorClosed()) {
+      elevator.step();
+    }
+    assertEquals(2, elevator.getRemainingCapacity());
+  }
+
   /**
    * test toString method.
    * The elevator should be waiting for 5 steps
@@ -0,0 +1,85 @@
+package elevator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * A JUnit test class for the StopRegistry class.
+ */
+public class StopRegistryTest {
+
+  /**
+   * Test set, get and clear keep the count in sync.
+   */
+  @Test
+  public void testSetAndClear() {
+    StopRegistry stops = new StopRegistry(10);
+    stops.set(3);
+    stops.set(3);
+    stops.set(7);
+    assertTrue(stops.get(3));
+    assertFalse(stops.get(4));
+    assertEquals(2, stops.cardinality());
+
+    stops.clear(3);
+    stops.clear(3);
+    assertFalse(stops.get(3));
+    assertEquals(1, stops.cardinality());
+
+    stops.clearAll();
+    assertTrue(stops.isEmpty());
+    assertFalse(stops.get(7));
+  }
+
+  /**
+   * Test lookahead in both directions within one word.
+   */
+  @Test
+  public void testLookaheadSingleWord() {
+    StopRegistry stops = new StopRegistry(30);
+    stops.set(4);
+    stops.set(20);
+    assertEquals(4, stops.nextSetBit(0));
+    assertEquals(4, stops.nextSetBit(4));
+    assertEquals(20, stops.nextSetBit(5));
+    assertEquals(-1, stops.nextSetBit(21));
+    assertEquals(20, stops.previousSetBit(29));
+    assertEquals(4, stops.previousSetBit(19));
+    assertEquals(-1, stops.previousSetBit(3));
+  }
+
+  /**
+   * Test lookahead across word boundaries in a tall building.
+   */
+  @Test
+  public void testLookaheadAcrossWords() {
+    StopRegistry stops = new StopRegistry(200);
+    stops.set(0);
+    stops.set(63);
+    stops.set(64);
+    stops.set(199);
+    assertEquals(63, stops.nextSetBit(1));
+    assertEquals(64, stops.nextSetBit(64));
+    assertEquals(199, stops.nextSetBit(65));
+    assertEquals(64, stops.previousSetBit(198));
+    assertEquals(63, stops.previousSetBit(63));
+    assertEquals(0, stops.previousSetBit(62));
+    assertEquals(4, stops.cardinality());
+    assertEquals(-1, stops.nextSetBit(200));
+  }
+
+  /**
+   * Test conversion to a boolean array.
+   */
+  @Test
+  public void testToBooleanArray() {
+    StopRegistry stops = new StopRegistry(4);
+    stops.set(1);
+    stops.set(3);
+    assertArrayEquals(new boolean[]{false, true, false, true}, stops.toBooleanArray());
+  }
+}
@@ -0,0 +1,114 @@
+package simulation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import building.BuildingReport;
+import elevator.ElevatorReport;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * A Junit test class for the DiscreteEventEngine class.
+ */
+public class DiscreteEventEngineTest {
+
+  /**
+   * Test that the reports seen at every event match a tick-by-tick run on the same tick.
+   */
+  @Test
+  public void testReportsMatchStepping() {
+    List<SimulationEvent> seen = new ArrayList<>();
+    List<BuildingReport> reports = new ArrayList<>();
+    List<String> requests = new ArrayList<>();
+    DiscreteEventEngine engine = new DiscreteEventEngine(new Building(20, 4, 6),
+        new RandomRequestSource(20, 0.02, 3L));
+    engine.setEventListener((event, report) -> {
+      // the request lists of a report are live, so keep what they hold right now
+      seen.add(event);
+      reports.add(report);
+      requests.add(report.getUpRequests() + " " + report.getDownRequests());
+    });
+    engine.run(4_000);
+
+    Building stepped = new Building(20, 4, 6);
+    stepped.startElevatorSystem();
+    RandomRequestSource source = new RandomRequestSource(20, 0.02, 3L);
+
+    int next = 0;
+    for (long tick = 0; tick <= 4_000 && next < seen.size(); tick++) {
+      while (source.nextTick() <= tick) {
+        stepped.addRequest(source.next());
+      }
+      while (next < seen.size() && seen.get(next).getTick() == tick) {
+        BuildingReport expected = stepped.getElevatorSystemStatus();
+        assertEquals(expected.getUpRequests() + " " + expected.getDownRequests(),
+            requests.get(next));
+        assertSameReport(expected, reports.get(next));
+        next++;
+      }
+      stepped.stepElevatorSystem();
+    }
+
+    assertEquals(seen.size(), next);
+    assertEquals(4_000, engine.getTick());
+  }
+
+  /**
+   * Test that events come in tick order and that every kind of event shows up.
+   */
+  @Test
+  public void testEventOrder() {
+    List<SimulationEvent> seen = new ArrayList<>();
+    DiscreteEventEngine engine = new DiscreteEventEngine(new Building(10, 2, 5),
+        new RandomRequestSource(10, 0.05, 9L));
+    engine.setEventListener((event, report) -> seen.add(event));
+    engine.run(2_000);
+
+    boolean[] kinds = new boolean[EventType.values().length];
+    for (int i = 0; i < seen.size(); i++) {
+      kinds[seen.get(i).getType().ordinal()] = true;
+      if (i > 0) {
+        assertTrue(seen.get(i - 1).compareTo(seen.get(i)) < 0);
+      }
+    }
+    for (boolean kind : kinds) {
+      assertTrue(kind);
+    }
+  }
+
+  /**
+   * Test that sparse traffic takes far fewer events than steps. Running elevators keep
+   * travelling between the terminals, so there are still a few events per trip.
+   */
+  @Test(timeout = 5_000)
+  public void testSparseTraffic() {
+    Building building = new Building(30, 2, 10);
+    DiscreteEventEngine engine = new DiscreteEventEngine(building,
+        new RandomRequestSource(30, 0.0005, 1L));
+
+    SimulationResult result = engine.run(10_000_000L);
+    assertEquals(10_000_000L, building.getStepCount());
+    assertTrue(result.getSubmittedRequests() > 0);
+    assertTrue(engine.getHandledEvents() < 10_000_000L / 5);
+  }
+
+  private void assertSameReport(BuildingReport expected, BuildingReport actual) {
+    assertEquals(expected.getSystemStatus(), actual.getSystemStatus());
+    for (int i = 0; i < expected.getNumElevators(); i++) {
+      ElevatorReport a = expected.getElevatorReports()[i];
+      ElevatorReport b = actual.getElevatorReports()[i];
+      assertEquals(a.getCurrentFloor(), b.getCurrentFloor());
+      assertEquals(a.getDirection(), b.getDirection());
+      assertEquals(a.isDoorClosed(), b.isDoorClosed());
+      assertEquals(a.getDoorOpenTimer(), b.getDoorOpenTimer());
+      assertEquals(a.getEndWaitTimer(), b.getEndWaitTimer());
+      assertEquals(a.isOutOfService(), b.isOutOfService());
+      assertEquals(a.isTakingRequests(), b.isTakingRequests());
+      assertArrayEquals(a.getFloorRequests(), b.getFloorRequests());
+    }
+  }
+}
@@ -0,0 +1,263 @@
+package simulation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import building.Building;
+import building.BuildingReport;
+import building.RequestLifecycleListener;
+import building.dispatch.NearestCarDispatchStrategy;
+import elevator.ElevatorReport;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * A Junit test class for the EventLogWriter and EventLogReader classes.
+ */
+public class EventLogTest {
+  private static final int STEPS = 3_000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final BuildingReport[] expected = new BuildingReport[STEPS + 1];
+  private final String[] expectedRequests = new String[STEPS + 1];
+  private long textBytes;
+
+  /**
+   * Test that the reader rebuilds the report of every tick, going forward and back.
+   */
+  @Test
+  public void testReportAtEveryTick() throws IOException {
+    Path log = record(folder.newFile().toPath());
+
+    try (EventLogReader reader = new EventLogReader(log)) {
+      for (int tick = 0; tick <= STEPS; tick++) {
+        assertReport(tick, reader.reportAt(tick));
+      }
+      assertReport(1_500, reader.reportAt(1_500));
+      assertReport(12, reader.reportAt(12));
+    }
+  }
+
+  /**
+   * Test that the log is a small fraction of the text printed for the same steps.
+   */
+  @Test
+  public void testLogIsCompact() throws IOException {
+    Path log = record(folder.newFile().toPath());
+    long logBytes = Files.size(log);
+    assertTrue(logBytes + " vs " + textBytes, logBytes * 10 < textBytes);
+  }
+
+  /**
+   * Test that replayed lifecycle events match what the building recorded.
+   */
+  @Test
+  public void testLifecycleReplay() throws IOException {
+    Path log = folder.newFile().toPath();
+    Building building = record(log, 0);
+    AtomicLong delivered = new AtomicLong();
+
+    try (EventLogReader reader = new EventLogReader(log)) {
+      reader.setRequestListener(new RequestLifecycleListener() {
+        @Override
+        public void requestDelivered(int elevator, int startFloor, int endFloor, long tick) {
+          delivered.incrementAndGet();
+        }
+      });
+      reader.reportAt(STEPS);
+    }
+    assertEquals(building.getLatencyMetrics().getRideTimes().getCount(), delivered.get());
+    assertTrue(delivered.get() > 100);
+  }
+
+  /**
+   * Test that a log cut off in the middle of a record is read up to the cut.
+   */
+  @Test
+  public void testTruncatedLog() throws IOException {
+    Path log = record(folder.newFile().toPath());
+    byte[] bytes = Files.readAllBytes(log);
+    Path cut = folder.newFile().toPath();
+    Files.write(cut, Arrays.copyOf(bytes, bytes.length - 3));
+
+    try (EventLogReader reader = new EventLogReader(cut)) {
+      assertReport(100, reader.reportAt(100));
+      assertEquals(10, reader.reportAt(Long.MAX_VALUE).getNumElevators());
+    }
+  }
+
+  /**
+   * Test that a log of a building with a million pending requests, taken from the middle
+   * by the nearest-car strategy, is replayed quickly.
+   */
+  @Test(timeout = 20_000)
+  public void testLargeBacklogReplay() throws IOException {
+    Path log = folder.newFile().toPath();
+    Building building = new Building(30, 10, 20);
+    building.setDispatchStrategy(new NearestCarDispatchStrategy());
+    building.startElevatorSystem();
+    RandomRequestSource source = new RandomRequestSource(30, 1.0, 5L);
+    for (int i = 0; i < 1_000_000; i++) {
+      building.addRequest(source.next());
+    }
+
+    try (EventLogWriter ignored = new EventLogWriter(log, building)) {
+      building.advanceElevatorSystem(20_000);
+    }
+    BuildingReport want = building.getElevatorSystemStatus();
+
+    try (EventLogReader reader = new EventLogReader(log)) {
+      long start = System.nanoTime();
+      BuildingReport got = reader.reportAt(building.getStepCount());
+      long millis = (System.nanoTime() - start) / 1_000_000;
+      assertTrue("replay took " + millis + " ms", millis < 1_500);
+      assertArrayEquals(want.getElevatorReports(), got.getElevatorReports());
+      assertEquals(want.getUpRequests().toString(), got.getUpRequests().toString());
+      assertEquals(want.getDownRequests().toString(), got.getDownRequests().toString());
+    }
+  }
+
+  /**
+   * Test that a building driven by the engine, which advances over quiet stretches
+   * instead of stepping, is logged without being asked to, and ends where the log does.
+   */
+  @Test
+  public void testAdvanceIsLogged() throws IOException {
+    Path log = folder.newFile().toPath();
+    Building building = new Building(20, 4, 8);
+    SimulationEngine engine = new SimulationEngine(building,
+        new RandomRequestSource(20, 0.02, 13L));
+
+    long delivered;
+    try (EventLogWriter ignored = new EventLogWriter(log, building)) {
+      engine.run(50_000);
+      delivered = building.getLatencyMetrics().getRideTimes().getCount();
+    }
+    BuildingReport want = building.getElevatorSystemStatus();
+    assertTrue(delivered > 100);
+
+    AtomicLong replayed = new AtomicLong();
+    try (EventLogReader reader = new EventLogReader(log)) {
+      reader.setRequestListener(new RequestLifecycleListener() {
+        @Override
+        public void requestDelivered(int elevator, int startFloor, int endFloor, long tick) {
+          replayed.incrementAndGet();
+        }
+      });
+      BuildingReport got = reader.reportAt(building.getStepCount());
+      assertEquals(50_000, reader.getTick());
+      assertArrayEquals(want.getElevatorReports(), got.getElevatorReports());
+      assertEquals(want.getUpRequests().toString(), got.getUpRequests().toString());
+    }
+    assertEquals(delivered, replayed.get());
+  }
+
+  /**
+   * Test that a file that is not an event log is rejected.
+   */
+  @Test(expected = IOException.class)
+  public void testNotALog() throws IOException {
+    Path other = folder.newFile().toPath();
+    Files.write(other, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+    new EventLogReader(other).close();
+  }
+
+  /**
+   * Test that a corrupt status, elevator index or direction is reported as a bad log.
+   */
+  @Test
+  public void testCorruptRecords() throws IOException {
+    Path log = folder.newFile().toPath();
+    Building building = new Building(10, 2, 5);
+    new EventLogWriter(log, building).close();
+    byte[] bytes = Files.readAllBytes(log);
+    // magic, four shape numbers and two elevator ids, then the first records
+    assertEquals(EventLogWriter.STATUS, bytes[14]);
+    assertEquals(EventLogWriter.CAR | EventLogWriter.ALL_CHANGED, bytes[16]);
+
+    assertCorrupt(bytes, 15, "Unknown system status 99 in event log.");
+    assertCorrupt(bytes, 17, "Unknown elevator 99 in event log.");
+    assertCorrupt(bytes, 19, "Unknown direction 99 in event log.");
+  }
+
+  private void assertCorrupt(byte[] log, int at, String message) throws IOException {
+    byte[] corrupt = log.clone();
+    corrupt[at] = 99;
+    Path file = folder.newFile().toPath();
+    Files.write(file, corrupt);
+    try (EventLogReader reader = new EventLogReader(file)) {
+      reader.reportAt(0);
+      fail("Read a log with a corrupt byte at " + at + ".");
+    } catch (IOException e) {
+      assertEquals(message, e.getMessage());
+    }
+  }
+
+  private Path record(Path log) throws IOException {
+    record(log, 64);
+    return log;
+  }
+
+  /**
+   * Run a busy building with a stop and restart, remembering the report after each step.
+   */
+  private Building record(Path log, int flushInterval) throws IOException {
+    Building building = new Building(15, 10, 5);
+    building.setDispatchStrategy(new NearestCarDispatchStrategy());
+    building.startElevatorSystem();
+    RandomRequestSource source = new RandomRequestSource(15, 0.4, 11L);
+
+    try (EventLogWriter ignored = flushInterval > 0
+        ? new EventLogWriter(log, building, flushInterval)
+        : new EventLogWriter(log, building)) {
+      for (int tick = 0; tick <= STEPS; tick++) {
+        if (tick > 0) {
+          building.stepElevatorSystem();
+        }
+        // requests arriving during a tick are queued before the next step
+        while (source.nextTick() <= tick) {
+          try {
+            building.addRequest(source.next());
+          } catch (IllegalStateException e) {
+            // the system is stopping
+          }
+        }
+        if (tick == 2_000) {
+          building.stopElevatorSystem();
+        } else if (tick == 2_100) {
+          building.startElevatorSystem();
+        }
+        remember(building, tick);
+      }
+    }
+    return building;
+  }
+
+  private void remember(Building building, int tick) {
+    BuildingReport report = building.getElevatorSystemStatus();
+    expected[tick] = report;
+    expectedRequests[tick] = report.getUpRequests() + " " + report.getDownRequests();
+    for (ElevatorReport elevator : report.getElevatorReports()) {
+      textBytes += elevator.toString().length() + 1;
+    }
+    textBytes += expectedRequests[tick].length() + 1;
+  }
+
+  private void assertReport(int tick, BuildingReport actual) {
+    BuildingReport want = expected[tick];
+    assertEquals(want.getSystemStatus(), actual.getSystemStatus());
+    assertArrayEquals("tick " + tick, want.getElevatorReports(), actual.getElevatorReports());
+    assertEquals("tick " + tick, expectedRequests[tick],
+        actual.getUpRequests() + " " + actual.getDownRequests());
+  }
+}
@@ -0,0 +1,182 @@
+package simulation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import building.BuildingLimits;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+/**
+ * A Junit test class for the ParameterSweep and SweepSummaryWriter classes.
+ */
+public class ParameterSweepTest {
+  private static final List<TrafficProfile> PROFILES = Arrays.asList(
+      TrafficProfile.uniform("light", 0.1), TrafficProfile.uniform("busy", 0.6));
+
+  /**
+   * Test that every configuration gives the result of running it on its own, and that
+   * progress reaches the total in order.
+   */
+  @Test
+  public void testSweepMatchesSequentialRuns() {
+    List<SweepConfiguration> grid = ParameterSweep.grid(new int[] {10, 20},
+        new int[] {2, 5}, new int[] {5, 10}, PROFILES, 7L);
+    assertEquals(16, grid.size());
+    ParameterSweep sweep = new ParameterSweep(grid, 20_000);
+    List<Integer> progress = new ArrayList<>();
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    SimulationResult[] results;
+    try {
+      results = sweep.run(pool, (configuration, result, done, total) -> {
+        assertEquals(16, total);
+        progress.add(done);
+      });
+    } finally {
+      pool.shutdown();
+    }
+
+    assertEquals(16, sweep.getCompleted());
+    for (int i = 0; i < progress.size(); i++) {
+      assertEquals(i + 1, (int) progress.get(i));
+    }
+    for (int i = 0; i < grid.size(); i++) {
+      SweepConfiguration configuration = grid.get(i);
+      Building building = new Building(configuration.getNumberOfFloors(),
+          configuration.getNumberOfElevators(), configuration.getElevatorCapacity());
+      SimulationResult expected = new SimulationEngine(building, configuration.getProfile()
+          .createSource(configuration.getNumberOfFloors(), configuration.getSeed()))
+          .run(20_000);
+
+      assertEquals(20_000, results[i].getSteps());
+      assertEquals(expected.getSubmittedRequests(), results[i].getSubmittedRequests());
+      assertEquals(expected.getPendingRequests(), results[i].getPendingRequests());
+      assertEquals(expected.getLatency().toString(), results[i].getLatency().toString());
+      assertArrayEquals(expected.getFinalReport().getElevatorReports(),
+          results[i].getFinalReport().getElevatorReports());
+    }
+  }
+
+  /**
+   * Test that the summary table has a header and one row per configuration.
+   */
+  @Test
+  public void testSummaryTable() throws IOException {
+    List<SweepConfiguration> grid = ParameterSweep.grid(new int[] {10},
+        new int[] {1, 3}, new int[] {5}, PROFILES, 1L);
+    StringWriter table = new StringWriter();
+    SimulationResult[] results = new ParameterSweep(grid, 5_000)
+        .run(new SweepSummaryWriter(table));
+
+    String[] rows = table.toString().split("\n");
+    assertEquals(5, rows.length);
+    assertEquals(SweepSummaryWriter.HEADER, rows[0]);
+    for (int i = 1; i < rows.length; i++) {
+      assertEquals(14, rows[i].split(",").length);
+    }
+    String light = "10,1,5,light," + results[0].getSubmittedRequests() + ",0,"
+        + results[0].getPendingRequests() + ",";
+    assertTrue(table.toString(), table.toString().contains("\n" + light));
+  }
+
+  /**
+   * Test that a profile name holding a comma, quotes and a line break is quoted, so the
+   * row keeps its columns.
+   */
+  @Test
+  public void testSummaryQuotesProfileName() throws IOException {
+    TrafficProfile odd = TrafficProfile.uniform("peak, \"am\"\nlobby", 0.2);
+    StringWriter table = new StringWriter();
+    new ParameterSweep(ParameterSweep.grid(new int[] {10}, new int[] {2}, new int[] {5},
+        Collections.singletonList(odd), 1L), 1_000).run(new SweepSummaryWriter(table));
+
+    String row = table.toString().substring(SweepSummaryWriter.HEADER.length() + 1);
+    assertTrue(row, row.startsWith("10,2,5,\"peak, \"\"am\"\"\nlobby\","));
+    String rest = row.substring(row.lastIndexOf('"') + 2, row.length() - 1);
+    assertEquals(10, rest.split(",").length);
+  }
+
+  /**
+   * Test that cancelling from the listener skips what has not finished.
+   */
+  @Test
+  public void testCancel() {
+    List<SweepConfiguration> grid = ParameterSweep.grid(new int[] {10, 20, 30},
+        new int[] {1, 2, 3, 4}, new int[] {5, 10}, PROFILES, 3L);
+    ParameterSweep sweep = new ParameterSweep(grid, 1_000_000);
+
+    ForkJoinPool pool = new ForkJoinPool(2);
+    SimulationResult[] results;
+    try {
+      results = sweep.run(pool, (configuration, result, done, total) -> sweep.cancel());
+    } finally {
+      pool.shutdown();
+    }
+
+    assertTrue(sweep.isCancelled());
+    int finished = 0;
+    for (SimulationResult result : results) {
+      if (result != null) {
+        assertEquals(1_000_000, result.getSteps());
+        finished++;
+      }
+    }
+    assertEquals(sweep.getCompleted(), finished);
+    assertTrue(finished >= 1 && finished < grid.size());
+  }
+
+  /**
+   * Test that an exception from the listener ends the sweep and is rethrown.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testListenerFailure() {
+    List<SweepConfiguration> grid = ParameterSweep.grid(new int[] {10},
+        new int[] {1, 2}, new int[] {5}, PROFILES, 3L);
+    new ParameterSweep(grid, 1_000).run((configuration, result, done, total) -> {
+      throw new IllegalStateException("Listener failed.");
+    });
+  }
+
+  /**
+   * Test that a building outside the limits is rejected up front.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConfigurationOutsideLimits() {
+    new ParameterSweep(ParameterSweep.grid(new int[] {10}, new int[] {11}, new int[] {5},
+        PROFILES, 1L), 1_000);
+  }
+
+  /**
+   * Test that custom limits allow larger buildings, and an empty sweep does nothing.
+   */
+  @Test
+  public void testTowerLimitsAndEmptySweep() {
+    SweepConfiguration tower = new SweepConfiguration(100, 40, 30, PROFILES.get(1), 5L);
+    SimulationResult[] results = new ParameterSweep(Collections.singletonList(tower), 2_000,
+        BuildingLimits.TOWER).run(null);
+    assertNotNull(results[0]);
+    assertEquals(40, results[0].getFinalReport().getNumElevators());
+
+    assertEquals(0, new ParameterSweep(new ArrayList<>(), 1_000).run(null).length);
+  }
+
+  /**
+   * Test that a sweep can only be run once.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testRunTwice() {
+    ParameterSweep sweep = new ParameterSweep(new ArrayList<>(), 1_000);
+    sweep.run(null);
+    sweep.run(null);
+  }
+}
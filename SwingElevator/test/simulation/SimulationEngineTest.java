@@ -0,0 +1,73 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import building.enums.ElevatorSystemStatus;
+import org.junit.Test;
+
+/**
+ * A Junit test class for the SimulationEngine class.
+ */
+public class SimulationEngineTest {
+
+  /**
+   * Test that the engine starts the building and runs the requested number of steps.
+   */
+  @Test
+  public void testRunStartsBuilding() {
+    Building building = new Building(10, 3, 5);
+    SimulationEngine engine = new SimulationEngine(building,
+        new RandomRequestSource(10, 0.5, 42L));
+
+    SimulationResult result = engine.run(1_000);
+    assertEquals(ElevatorSystemStatus.running, building.getStatus());
+    assertEquals(1_000, result.getSteps());
+    assertEquals(1_000, engine.getTick());
+    assertTrue(result.getSubmittedRequests() > 0);
+    assertEquals(0, result.getRejectedRequests());
+  }
+
+  /**
+   * Test that a bounded source delivers exactly its limit and the backlog drains.
+   */
+  @Test
+  public void testBoundedSourceDrains() {
+    Building building = new Building(10, 3, 5);
+    SimulationEngine engine = new SimulationEngine(building,
+        new RandomRequestSource(10, 1.0, 7L, 50));
+
+    SimulationResult first = engine.run(100);
+    SimulationResult second = engine.run(2_000);
+    assertEquals(50, first.getSubmittedRequests() + second.getSubmittedRequests());
+    assertEquals(0, second.getPendingRequests());
+    assertEquals(0, second.getFinalReport().getUpRequests().size());
+  }
+
+  /**
+   * Test that the same seed gives the same final state.
+   */
+  @Test
+  public void testDeterministic() {
+    Building first = new Building(12, 4, 5);
+    Building second = new Building(12, 4, 5);
+    new SimulationEngine(first, new RandomRequestSource(12, 0.8, 3L)).run(5_000);
+    new SimulationEngine(second, new RandomRequestSource(12, 0.8, 3L)).run(5_000);
+
+    assertEquals(first.getUpRequest().size(), second.getUpRequest().size());
+    assertEquals(first.getDownRequest().size(), second.getDownRequest().size());
+    for (int i = 0; i < first.getNumberOfElevators(); i++) {
+      assertEquals(first.getElevators().get(i).getCurrentFloor(),
+          second.getElevators().get(i).getCurrentFloor());
+    }
+  }
+
+  /**
+   * Test that a negative step budget is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeSteps() {
+    new SimulationEngine(new Building(10, 3, 5), new RandomRequestSource(10, 1.0, 1L)).run(-1);
+  }
+}
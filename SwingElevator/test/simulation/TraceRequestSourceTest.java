@@ -0,0 +1,160 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import building.Building;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import scanerzus.Request;
+
+/**
+ * A Junit test class for the TraceRequestSource class.
+ */
+public class TraceRequestSourceTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Test that a CSV trace is read across many small windows, skipping the header,
+   * comments and blank lines.
+   */
+  @Test
+  public void testCsvAcrossWindows() throws IOException {
+    StringBuilder csv = new StringBuilder("tick,start,end\r\n# recorded at the lobby\n\n");
+    for (int i = 0; i < 200; i++) {
+      csv.append(i * 3).append(", ").append(i % 10).append(',').append(9 - i % 10)
+          .append("\r\n");
+    }
+    csv.append("600,1,2");
+    Path trace = write(csv.toString());
+
+    try (TraceRequestSource source = new TraceRequestSource(trace, 64)) {
+      for (int i = 0; i < 200; i++) {
+        assertEquals(i * 3, source.nextTick());
+        Request request = source.next();
+        assertEquals(i % 10, request.getStartFloor());
+        assertEquals(9 - i % 10, request.getEndFloor());
+      }
+      assertEquals(600, source.nextTick());
+      assertEquals(2, source.next().getEndFloor());
+      assertEquals(Long.MAX_VALUE, source.nextTick());
+      assertEquals(201, source.getReplayed());
+    }
+  }
+
+  /**
+   * Test that a header after leading comments is skipped, and a later line starting with
+   * a letter is reported.
+   */
+  @Test
+  public void testHeaderAfterComments() throws IOException {
+    Path trace = write("# lobby, morning peak\n\ntick,start,end\n3,0,4\nend,1,2\n");
+    try (TraceRequestSource source = new TraceRequestSource(trace)) {
+      assertEquals(3, source.nextTick());
+      assertEquals(4, source.next().getEndFloor());
+      source.nextTick();
+      fail("A second header was read as a record.");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage(), e.getMessage().startsWith("Trace record 5: "));
+    }
+  }
+
+  /**
+   * Test that ticks are replayed as recorded rather than from the first record, so a
+   * trace that starts late leaves the building idle until then.
+   */
+  @Test
+  public void testTicksAreNotRebased() throws IOException {
+    try (TraceRequestSource source = new TraceRequestSource(write("1000000,1,2\n"))) {
+      assertEquals(1_000_000, source.nextTick());
+      SimulationEngine engine = new SimulationEngine(new Building(10, 2, 5), source);
+      assertEquals(0, engine.run(1_000_000).getSubmittedRequests());
+      assertEquals(1, engine.run(1).getSubmittedRequests());
+      assertEquals(1, source.getReplayed());
+    }
+  }
+
+  /**
+   * Test that a binary trace replays exactly the source it was written from.
+   */
+  @Test
+  public void testBinaryRoundTrip() throws IOException {
+    Path trace = folder.newFile("trace.bin").toPath();
+    assertEquals(5_000, TraceRequestSource.writeBinary(
+        new RandomRequestSource(12, 2.0, 9L, 5_000), trace));
+
+    RandomRequestSource expected = new RandomRequestSource(12, 2.0, 9L, 5_000);
+    try (TraceRequestSource source = new TraceRequestSource(trace, 100)) {
+      while (expected.nextTick() != Long.MAX_VALUE) {
+        assertEquals(expected.nextTick(), source.nextTick());
+        Request want = expected.next();
+        Request got = source.next();
+        assertEquals(want.getStartFloor(), got.getStartFloor());
+        assertEquals(want.getEndFloor(), got.getEndFloor());
+      }
+      assertEquals(Long.MAX_VALUE, source.nextTick());
+    }
+  }
+
+  /**
+   * Test that a million recorded requests replay through the engine.
+   */
+  @Test(timeout = 60_000)
+  public void testMillionRequestReplay() throws IOException {
+    Path trace = folder.newFile("million.bin").toPath();
+    TraceRequestSource.writeBinary(new RandomRequestSource(20, 1.0, 5L, 1_000_000), trace);
+
+    try (TraceRequestSource source = new TraceRequestSource(trace)) {
+      SimulationEngine engine = new SimulationEngine(new Building(20, 10, 20), source);
+      SimulationResult result = engine.run(1_100_000);
+      assertEquals(1_000_000, source.getReplayed());
+      assertEquals(1_000_000, result.getSubmittedRequests() + result.getRejectedRequests());
+    }
+  }
+
+  /**
+   * Test that ticks going backwards are reported by nextTick.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testDecreasingTick() throws IOException {
+    try (TraceRequestSource source = new TraceRequestSource(write("5,1,2\n4,2,1\n"))) {
+      source.next();
+      source.nextTick();
+    }
+  }
+
+  /**
+   * Test that a line with a missing field is reported by nextTick.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testMissingField() throws IOException {
+    try (TraceRequestSource source = new TraceRequestSource(write("5,1\n"))) {
+      source.nextTick();
+    }
+  }
+
+  /**
+   * Test that an empty trace has no requests.
+   */
+  @Test(expected = NoSuchElementException.class)
+  public void testEmptyTrace() throws IOException {
+    try (TraceRequestSource source = new TraceRequestSource(write(""))) {
+      assertEquals(Long.MAX_VALUE, source.nextTick());
+      source.next();
+    }
+  }
+
+  private Path write(String contents) throws IOException {
+    Path trace = folder.newFile().toPath();
+    Files.write(trace, contents.getBytes(StandardCharsets.US_ASCII));
+    return trace;
+  }
+}